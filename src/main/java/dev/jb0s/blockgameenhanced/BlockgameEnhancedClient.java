@@ -8,16 +8,20 @@ import dev.jb0s.blockgameenhanced.gamefeature.discordrpc.DiscordRPCGameFeature;
 import dev.jb0s.blockgameenhanced.gamefeature.hotkey.HotkeyGameFeature;
 import dev.jb0s.blockgameenhanced.gamefeature.immersivehud.ImmersiveHUDGameFeature;
 import dev.jb0s.blockgameenhanced.gamefeature.jukebox.JukeboxGameFeature;
+import dev.jb0s.blockgameenhanced.gamefeature.latency.LatencyEstimator;
 import dev.jb0s.blockgameenhanced.gamefeature.latency.LatencyGameFeature;
 import dev.jb0s.blockgameenhanced.gamefeature.mmoitems.MMOItemsGameFeature;
 import dev.jb0s.blockgameenhanced.gamefeature.mmostats.MMOStatsGameFeature;
 import dev.jb0s.blockgameenhanced.gamefeature.party.PartyGameFeature;
 import dev.jb0s.blockgameenhanced.gamefeature.recipetracker.RecipeTrackerGameFeature;
+import dev.jb0s.blockgameenhanced.gamefeature.servertime.ServerClock;
+import dev.jb0s.blockgameenhanced.gamefeature.servertime.ServerTimeGameFeature;
 import dev.jb0s.blockgameenhanced.gamefeature.titlescreen.TitleScreenGameFeature;
 import dev.jb0s.blockgameenhanced.gamefeature.updateprompter.UpdatePrompterGameFeature;
 import dev.jb0s.blockgameenhanced.gamefeature.zone.ZoneGameFeature;
 import dev.jb0s.blockgameenhanced.gamefeature.zoneboss.ZoneBossGameFeature;
 import dev.jb0s.blockgameenhanced.config.ConfigManager;
+import dev.jb0s.blockgameenhanced.helper.ItemLabelHelper;
 import dev.jb0s.blockgameenhanced.update.GitHubRelease;
 import dev.jb0s.blockgameenhanced.update.UpdateManager;
 import lombok.Getter;
@@ -54,6 +58,12 @@ public class BlockgameEnhancedClient implements ClientModInitializer {
     @Setter
     private static int latency;
 
+    @Getter
+    private static final LatencyEstimator latencyEstimator = new LatencyEstimator();
+
+    @Getter
+    private static final ServerClock serverClock = new ServerClock();
+
     @Getter
     private List<String> userDisabledGameFeatureNames;
 
@@ -72,6 +82,7 @@ public class BlockgameEnhancedClient implements ClientModInitializer {
 
         configManager = new ConfigManager();
         updateManager = new UpdateManager();
+        ItemLabelHelper.init();
 
         // Load all game features
         parseUserDisabledGameFeatures();
@@ -105,6 +116,7 @@ public class BlockgameEnhancedClient implements ClientModInitializer {
         loadGameFeature(new DiscordRPCGameFeature());
         loadGameFeature(new HotkeyGameFeature());
         loadGameFeature(new MMOStatsGameFeature());
+        loadGameFeature(new ServerTimeGameFeature());
         loadGameFeature(new MMOItemsGameFeature());
         loadGameFeature(new PartyGameFeature());
         loadGameFeature(new UpdatePrompterGameFeature());
@@ -12,6 +12,21 @@ public class AccessibilityConfig implements ConfigData {
     @ConfigEntry.Gui.Tooltip
     public boolean enableItemLabels;
 
+    @ConfigEntry.Gui.Tooltip
+    @ConfigEntry.BoundedDiscrete(min = 4, max = 64)
+    public int itemLabelRange;
+
+    @ConfigEntry.Gui.Tooltip
+    public boolean enableItemLabelClustering;
+
+    @ConfigEntry.Gui.Tooltip
+    @ConfigEntry.BoundedDiscrete(min = 1, max = 8)
+    public int itemLabelClusterRadius;
+
+    @ConfigEntry.Gui.Tooltip
+    @ConfigEntry.BoundedDiscrete(min = 16, max = 128)
+    public int itemLabelMaxLength;
+
     @ConfigEntry.Gui.Tooltip
     public boolean enableCustomTitleScreen;
 
@@ -27,6 +42,10 @@ public class AccessibilityConfig implements ConfigData {
     public AccessibilityConfig() {
         enableAutoRespawn = true;
         enableItemLabels = true;
+        itemLabelRange = 24;
+        enableItemLabelClustering = true;
+        itemLabelClusterRadius = 2;
+        itemLabelMaxLength = 48;
         enableCustomTitleScreen = true;
         enableUpdateChecker = true;
         enableLootAllButton = true;
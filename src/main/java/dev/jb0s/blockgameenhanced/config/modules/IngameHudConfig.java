@@ -31,6 +31,10 @@ public class IngameHudConfig implements ConfigData {
     @ConfigEntry.Gui.RequiresRestart(value = false)
     public boolean enableDrownFx;
 
+    @ConfigEntry.Gui.Tooltip
+    @ConfigEntry.Gui.RequiresRestart(value = false)
+    public boolean cacheItemIcons;
+
     public IngameHudConfig() {
         enableCustomHud = true;
         showAdvancedStats = false;
@@ -38,5 +42,6 @@ public class IngameHudConfig implements ConfigData {
         showProfessionExpInChat = false;
         enablePickupStream = true;
         enableDrownFx = true;
+        cacheItemIcons = true;
     }
 }
\ No newline at end of file
@@ -26,6 +26,9 @@ public class PartyHudConfig implements ConfigData {
     @ConfigEntry.Gui.Tooltip
     public boolean outlineMembers;
 
+    @ConfigEntry.Gui.Tooltip
+    public boolean cacheMemberCards;
+
     public PartyHudConfig() {
         showHud = true;
         showSelf = true;
@@ -33,5 +36,6 @@ public class PartyHudConfig implements ConfigData {
         deathNotify = true;
         markNotify = true;
         outlineMembers = true;
+        cacheMemberCards = true;
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package dev.jb0s.blockgameenhanced.event.adventurezone;
+
+import dev.jb0s.blockgameenhanced.gamefeature.zone.Zone;
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayerEntity;
+
+/**
+ * Fired when the player is heading towards a zone and will likely enter it soon, so listeners can get ready ahead of time.
+ * The zone is null when an earlier prediction no longer holds, for example because the player turned away.
+ */
+public interface PlayerApproachingZoneEvent {
+    Event<PlayerApproachingZoneEvent> EVENT = EventFactory.createArrayBacked(PlayerApproachingZoneEvent.class, (listeners) -> (client, playerEntity, zone) -> {
+        for (PlayerApproachingZoneEvent listener : listeners) {
+            listener.approachingZone(client, playerEntity, zone);
+        }
+    });
+
+    void approachingZone(MinecraftClient client, ClientPlayerEntity playerEntity, Zone zone);
+}
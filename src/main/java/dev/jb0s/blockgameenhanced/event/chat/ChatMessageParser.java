@@ -0,0 +1,19 @@
+package dev.jb0s.blockgameenhanced.event.chat;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.Text;
+
+/**
+ * Turns a chat message into a {@link ParsedChatMessage}.
+ * Parsers run on the network thread, so they must not touch game state. Reading config values is fine.
+ */
+public interface ChatMessageParser<T extends ParsedChatMessage> {
+    /**
+     * Parses a chat message.
+     * @param client The Minecraft client.
+     * @param message The chat message, as a plain string.
+     * @param text The chat message as it was received, with its formatting.
+     * @return The parsed message, null if this message is of no interest after all.
+     */
+    T parse(MinecraftClient client, String message, Text text);
+}
@@ -0,0 +1,12 @@
+package dev.jb0s.blockgameenhanced.event.chat;
+
+/**
+ * An immutable, already parsed chat message. Produced on the network thread, applied on the client thread.
+ */
+public interface ParsedChatMessage {
+    /**
+     * Whether the original message should be kept out of the chat.
+     * @return True to hide the message.
+     */
+    boolean suppress();
+}
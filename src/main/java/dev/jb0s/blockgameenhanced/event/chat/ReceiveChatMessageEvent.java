@@ -5,6 +5,10 @@ import net.fabricmc.fabric.api.event.EventFactory;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.util.ActionResult;
 
+/**
+ * Fired for every incoming chat message, on the network thread.
+ * Prefer {@link ReceiveChatMessageRouter} for messages that can be recognized by their prefix or suffix.
+ */
 public interface ReceiveChatMessageEvent {
     Event<ReceiveChatMessageEvent> EVENT = EventFactory.createArrayBacked(ReceiveChatMessageEvent.class, (listeners) -> (client, message) -> {
         for (ReceiveChatMessageEvent listener : listeners) {
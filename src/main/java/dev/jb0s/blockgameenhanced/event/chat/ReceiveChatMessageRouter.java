@@ -0,0 +1,217 @@
+package dev.jb0s.blockgameenhanced.event.chat;
+
+import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
+import it.unimi.dsi.fastutil.chars.Char2ObjectOpenHashMap;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.Text;
+import net.minecraft.util.ActionResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Parses every incoming chat message exactly once, on the network thread, and hands the results to the client thread.
+ *
+ * Features register a parser together with the prefix (or suffix) that their messages start (or end) with.
+ * Every message is matched against all of them with a single walk through a prefix trie and a suffix trie,
+ * so messages that nobody registered for are never parsed at all.
+ * Parsed messages are queued and applied by their handler on the client thread, in the order they arrived in.
+ *
+ * Matching parsers run in the order they registered in. The first parsed message that asks to be suppressed
+ * stops the chat message from going any further, just like a non-PASS result does for {@link ReceiveChatMessageEvent}.
+ * Listeners registered to {@link ReceiveChatMessageEvent#EVENT} directly still receive every message, after the routed ones.
+ *
+ * Routes should be registered while game features initialize.
+ */
+public class ReceiveChatMessageRouter {
+    private static final Node PREFIXES = new Node();
+    private static final Node SUFFIXES = new Node();
+    private static int registeredRoutes;
+
+    private static final ConcurrentLinkedQueue<PendingMessage> PENDING_MESSAGES = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean IS_DRAIN_SCHEDULED = new AtomicBoolean();
+
+    /**
+     * Registers a parser for all messages that start with the provided prefix.
+     * @param prefix The prefix to listen for, e.g. "[CD]".
+     * @param parser Parses the message on the network thread.
+     * @param handler Applies the parsed message on the client thread.
+     */
+    public static <T extends ParsedChatMessage> void registerPrefix(String prefix, ChatMessageParser<T> parser, Consumer<T> handler) {
+        Node node = PREFIXES;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.getOrCreateChild(prefix.charAt(i));
+        }
+
+        node.addRoute(new Route(parser, handler, registeredRoutes++));
+    }
+
+    /**
+     * Registers a parser for all messages that end with the provided suffix.
+     * @param suffix The suffix to listen for, e.g. " joined your party!".
+     * @param parser Parses the message on the network thread.
+     * @param handler Applies the parsed message on the client thread.
+     */
+    public static <T extends ParsedChatMessage> void registerSuffix(String suffix, ChatMessageParser<T> parser, Consumer<T> handler) {
+        Node node = SUFFIXES;
+        for (int i = suffix.length() - 1; i >= 0; i--) {
+            node = node.getOrCreateChild(suffix.charAt(i));
+        }
+
+        node.addRoute(new Route(parser, handler, registeredRoutes++));
+    }
+
+    /**
+     * Parses a chat message with every parser that registered for it, and queues the results for the client thread.
+     * @param client The Minecraft client.
+     * @param text The chat message as it was received.
+     * @return PASS if the message should be shown, otherwise SUCCESS or the result of the listener that handled it.
+     */
+    public static ActionResult dispatch(MinecraftClient client, Text text) {
+        String message = text.getString();
+        ArrayList<Route> matches = null;
+
+        // Walk the prefix trie from the front of the message
+        Node node = PREFIXES;
+        for (int i = 0; i < message.length() && node != null; i++) {
+            node = node.getChild(message.charAt(i));
+            if(node != null && node.routes != null) {
+                matches = addAll(matches, node.routes);
+            }
+        }
+
+        // Walk the suffix trie from the back of the message
+        node = SUFFIXES;
+        for (int i = message.length() - 1; i >= 0 && node != null; i--) {
+            node = node.getChild(message.charAt(i));
+            if(node != null && node.routes != null) {
+                matches = addAll(matches, node.routes);
+            }
+        }
+
+        if(matches != null) {
+            matches.sort(Comparator.comparingInt(Route::order));
+
+            for (int i = 0; i < matches.size(); i++) {
+                Route route = matches.get(i);
+
+                // A parser registered for both a prefix and a suffix that both match only gets the message once
+                if(isParserBefore(matches, i, route.parser)) {
+                    continue;
+                }
+
+                ParsedChatMessage parsed;
+                try {
+                    parsed = route.parser.parse(client, message, text);
+                }
+                catch (Exception e) {
+                    BlockgameEnhanced.LOGGER.error("Failed to parse chat message \"{}\": {}", message, e.getMessage());
+                    continue;
+                }
+
+                if(parsed == null) {
+                    continue;
+                }
+
+                enqueue(client, new PendingMessage(parsed, route.handler));
+                if(parsed.suppress()) {
+                    return ActionResult.SUCCESS;
+                }
+            }
+        }
+
+        return ReceiveChatMessageEvent.EVENT.invoker().receiveChatMessage(client, message);
+    }
+
+    /**
+     * Queues a parsed message, and makes sure the client thread gets around to applying it.
+     */
+    private static void enqueue(MinecraftClient client, PendingMessage pending) {
+        PENDING_MESSAGES.offer(pending);
+
+        // Only one drain needs to be scheduled at a time, it picks up everything that is queued by the time it runs
+        if(IS_DRAIN_SCHEDULED.compareAndSet(false, true)) {
+            client.execute(ReceiveChatMessageRouter::drain);
+        }
+    }
+
+    /**
+     * Applies all queued messages. Runs on the client thread.
+     */
+    private static void drain() {
+        // Reset first, anything queued from here on either gets picked up below or schedules a new drain
+        IS_DRAIN_SCHEDULED.set(false);
+
+        PendingMessage pending;
+        while ((pending = PENDING_MESSAGES.poll()) != null) {
+            try {
+                pending.apply();
+            }
+            catch (Exception e) {
+                BlockgameEnhanced.LOGGER.error("Failed to handle chat message: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isParserBefore(ArrayList<Route> matches, int index, ChatMessageParser<?> parser) {
+        for (int i = 0; i < index; i++) {
+            if(matches.get(i).parser == parser) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static ArrayList<Route> addAll(ArrayList<Route> matches, Route[] routes) {
+        if(matches == null) {
+            matches = new ArrayList<>(routes.length);
+        }
+
+        matches.addAll(Arrays.asList(routes));
+        return matches;
+    }
+
+    private record Route(ChatMessageParser<?> parser, Consumer<?> handler, int order) {
+    }
+
+    private record PendingMessage(ParsedChatMessage message, Consumer<?> handler) {
+        @SuppressWarnings("unchecked")
+        private void apply() {
+            // The route that produced this message registered a handler for exactly this type
+            ((Consumer<ParsedChatMessage>) handler).accept(message);
+        }
+    }
+
+    private static class Node {
+        private Char2ObjectOpenHashMap<Node> children;
+        private Route[] routes;
+
+        private Node getChild(char c) {
+            return children != null ? children.get(c) : null;
+        }
+
+        private Node getOrCreateChild(char c) {
+            if(children == null) {
+                children = new Char2ObjectOpenHashMap<>();
+            }
+
+            Node child = children.get(c);
+            if(child == null) {
+                child = new Node();
+                children.put(c, child);
+            }
+
+            return child;
+        }
+
+        private void addRoute(Route route) {
+            routes = routes == null ? new Route[] { route } : Arrays.copyOf(routes, routes.length + 1);
+            routes[routes.length - 1] = route;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package dev.jb0s.blockgameenhanced.event.chat;
+
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.Text;
+import net.minecraft.util.ActionResult;
+
+/**
+ * Fired for every message sent to the action bar, on the network thread, before it is routed like a chat message.
+ * The message is handed over as the original Text, so listeners that can scan it in place don't have to flatten it into a String.
+ */
+public interface ReceiveOverlayMessageEvent {
+    Event<ReceiveOverlayMessageEvent> EVENT = EventFactory.createArrayBacked(ReceiveOverlayMessageEvent.class, (listeners) -> (client, message) -> {
+        for (ReceiveOverlayMessageEvent listener : listeners) {
+            ActionResult result = listener.receiveOverlayMessage(client, message);
+
+            if(result != ActionResult.PASS) {
+                return result;
+            }
+        }
+
+        return ActionResult.PASS;
+    });
+
+    ActionResult receiveOverlayMessage(MinecraftClient client, Text message);
+}
@@ -7,8 +7,19 @@ public class ItemUsageEvent extends LatencyEvent {
     @Getter
     private final ItemStack itemStack;
 
+    /**
+     * Whether we sent a second right click for this usage to make the server tell us the cooldown.
+     */
+    @Getter
+    private final boolean probe;
+
     public ItemUsageEvent(ItemStack itemStack) {
+        this(itemStack, false);
+    }
+
+    public ItemUsageEvent(ItemStack itemStack, boolean probe) {
         super();
         this.itemStack = itemStack;
+        this.probe = probe;
     }
 }
@@ -4,11 +4,15 @@ import net.fabricmc.fabric.api.event.Event;
 import net.fabricmc.fabric.api.event.EventFactory;
 
 public interface ServerPingEvent {
-    Event<ServerPingEvent> EVENT = EventFactory.createArrayBacked(ServerPingEvent.class, (listeners) -> (id) -> {
+    Event<ServerPingEvent> EVENT = EventFactory.createArrayBacked(ServerPingEvent.class, (listeners) -> (roundTripMs) -> {
         for (ServerPingEvent listener : listeners) {
-            listener.serverPing(id);
+            listener.serverPing(roundTripMs);
         }
     });
 
-    void serverPing(long id);
+    /**
+     * Fired on the network thread when the server answers a ping.
+     * @param roundTripMs Measured round trip time in milliseconds.
+     */
+    void serverPing(long roundTripMs);
 }
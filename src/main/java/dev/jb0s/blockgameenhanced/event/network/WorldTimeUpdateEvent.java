@@ -0,0 +1,19 @@
+package dev.jb0s.blockgameenhanced.event.network;
+
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
+
+public interface WorldTimeUpdateEvent {
+    Event<WorldTimeUpdateEvent> EVENT = EventFactory.createArrayBacked(WorldTimeUpdateEvent.class, (listeners) -> (worldTime, receivedMs) -> {
+        for (WorldTimeUpdateEvent listener : listeners) {
+            listener.worldTimeUpdate(worldTime, receivedMs);
+        }
+    });
+
+    /**
+     * Fired on the network thread when the server sends its world time, which it does every 20 server ticks.
+     * @param worldTime Age of the world in server ticks.
+     * @param receivedMs Util.getMeasuringTimeMs() at the time the packet arrived.
+     */
+    void worldTimeUpdate(long worldTime, long receivedMs);
+}
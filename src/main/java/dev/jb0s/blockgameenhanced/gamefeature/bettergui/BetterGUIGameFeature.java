@@ -5,11 +5,11 @@ import dev.jb0s.blockgameenhanced.BlockgameEnhancedClient;
 import dev.jb0s.blockgameenhanced.event.screen.ScreenOpenedEvent;
 import dev.jb0s.blockgameenhanced.event.screen.ScreenReceivedInventoryEvent;
 import dev.jb0s.blockgameenhanced.gamefeature.GameFeature;
+import dev.jb0s.blockgameenhanced.helper.MMOItemHelper;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.inventory.Inventory;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NbtElement;
 import net.minecraft.network.packet.s2c.play.InventoryS2CPacket;
 import net.minecraft.network.packet.s2c.play.OpenScreenS2CPacket;
 import net.minecraft.screen.slot.SlotActionType;
@@ -65,11 +65,11 @@ public class BetterGUIGameFeature extends GameFeature {
             ItemStack item = inv.getStack(i);
 
             // Ensure that this is item is an MMOItems with a Tier
-            NbtElement tier = item.getOrCreateNbt().get("MMOITEMS_TIER");
+            String tier = MMOItemHelper.getMMOTier(item);
             if(tier == null) continue;
 
             // If the tier is CURRENCY, then send click packets to the server to move it to deposit menu
-            if(tier.asString().equals("CURRENCY")) {
+            if(tier.equals("CURRENCY")) {
                 int slot = i > 8 ? 26 + (i - 8) : 54 + i; // Weird hack to translate from Inventory Slot to ChestScreen Slot
                 mc.interactionManager.clickSlot(waitingForSyncId, slot, 0, SlotActionType.QUICK_MOVE, p);
             }
@@ -3,7 +3,8 @@ package dev.jb0s.blockgameenhanced.gamefeature.chatchannels;
 import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
 import dev.jb0s.blockgameenhanced.BlockgameEnhancedClient;
 import dev.jb0s.blockgameenhanced.config.modules.ChatChannelsConfig;
-import dev.jb0s.blockgameenhanced.event.chat.ReceiveChatMessageEvent;
+import dev.jb0s.blockgameenhanced.event.chat.ParsedChatMessage;
+import dev.jb0s.blockgameenhanced.event.chat.ReceiveChatMessageRouter;
 import dev.jb0s.blockgameenhanced.event.gamefeature.chatchannels.ChatChannelRequestedEvent;
 import dev.jb0s.blockgameenhanced.event.gamefeature.chatchannels.ChatChannelToggledEvent;
 import dev.jb0s.blockgameenhanced.event.gamefeature.chatchannels.ChatChannelUpdatedEvent;
@@ -12,14 +13,13 @@ import dev.jb0s.blockgameenhanced.gamefeature.GameFeature;
 import dev.jb0s.blockgameenhanced.gamefeature.party.PartyGameFeature;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.text.Text;
-import net.minecraft.util.ActionResult;
 import net.minecraft.util.Formatting;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.*;
 import java.util.stream.Stream;
 
-public class ChatChannelsGameFeature extends GameFeature implements ReceiveChatMessageEvent, PartyUpdatedEvent, ChatChannelToggledEvent, ChatChannelRequestedEvent {
+public class ChatChannelsGameFeature extends GameFeature implements PartyUpdatedEvent, ChatChannelToggledEvent, ChatChannelRequestedEvent {
     private final static String CHANNEL_MESSAGE_PREFIX = "[TownyChat] You are now talking in ";
     private final static String ALREADY_IN_MESSAGE_PREFIX = "[TownyChat] You are already in ";
     private final static LinkedHashMap<String, ChatChannel> CHANNELS = new LinkedHashMap<>();
@@ -57,37 +57,38 @@ public class ChatChannelsGameFeature extends GameFeature implements ReceiveChatM
     public void init(MinecraftClient minecraftClient, BlockgameEnhancedClient blockgameClient) {
         super.init(minecraftClient, blockgameClient);
 
-        ReceiveChatMessageEvent.EVENT.register(this);
+        ReceiveChatMessageRouter.registerPrefix(CHANNEL_MESSAGE_PREFIX, this::parseChannelMessage, this::handleChannelMessage);
+        ReceiveChatMessageRouter.registerPrefix(ALREADY_IN_MESSAGE_PREFIX, this::parseChannelMessage, this::handleChannelMessage);
         PartyUpdatedEvent.EVENT.register(this);
         ChatChannelToggledEvent.EVENT.register(this);
         ChatChannelRequestedEvent.EVENT.register(this);
     }
 
-    @Override
-    public ActionResult receiveChatMessage(MinecraftClient client, String message) {
+    // runs on the network thread, only reads the message
+    private ChannelMessage parseChannelMessage(MinecraftClient client, String message, Text text) {
         if (!CONFIG.enable) {
-            return ActionResult.PASS;
+            return null;
         }
 
-        String channelName = null;
         if (message.startsWith(CHANNEL_MESSAGE_PREFIX)) {
-            channelName = message.substring(CHANNEL_MESSAGE_PREFIX.length());
+            return new ChannelMessage(message.substring(CHANNEL_MESSAGE_PREFIX.length()), false);
         } else if (message.startsWith(ALREADY_IN_MESSAGE_PREFIX)) {
             // this is a fallback in case we can't access a channel and the UI desyncs
-            channelName = message.substring(ALREADY_IN_MESSAGE_PREFIX.length());
+            return new ChannelMessage(message.substring(ALREADY_IN_MESSAGE_PREFIX.length()), false);
         }
 
-        if (channelName != null) {
-            ChatChannel channel = CHANNELS.get(channelName);
+        return null;
+    }
 
-            // if the channel is not in the map, create a temporary one so the UI doesn't break
-            if (channel == null) {
-                channel = new ChatChannel(channelName, Text.of(StringUtils.capitalize(channelName)));
-            }
-            setSelectedChannel(channel);
-        }
+    private void handleChannelMessage(ChannelMessage message) {
+        String channelName = message.channelName();
+        ChatChannel channel = CHANNELS.get(channelName);
 
-        return ActionResult.PASS;
+        // if the channel is not in the map, create a temporary one so the UI doesn't break
+        if (channel == null) {
+            channel = new ChatChannel(channelName, Text.of(StringUtils.capitalize(channelName)));
+        }
+        setSelectedChannel(channel);
     }
 
     @Override
@@ -163,4 +164,6 @@ public class ChatChannelsGameFeature extends GameFeature implements ReceiveChatM
 
         ChatChannelUpdatedEvent.EVENT.invoker().chatChannelUpdatedEvent(this);
     }
+
+    record ChannelMessage(String channelName, boolean suppress) implements ParsedChatMessage { }
 }
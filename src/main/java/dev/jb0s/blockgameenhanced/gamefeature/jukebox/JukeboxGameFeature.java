@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
 import dev.jb0s.blockgameenhanced.BlockgameEnhancedClient;
 import dev.jb0s.blockgameenhanced.event.adventurezone.EnteredWildernessEvent;
+import dev.jb0s.blockgameenhanced.event.adventurezone.PlayerApproachingZoneEvent;
 import dev.jb0s.blockgameenhanced.event.adventurezone.PlayerEnteredZoneEvent;
 import dev.jb0s.blockgameenhanced.event.bossbattle.BossBattleCommencedEvent;
 import dev.jb0s.blockgameenhanced.event.bossbattle.BossBattleEndedEvent;
@@ -23,6 +24,7 @@ import dev.jb0s.blockgameenhanced.gamefeature.zoneboss.ZoneBossBattleState;
 import lombok.Getter;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
+import net.minecraft.client.sound.Sound;
 import net.minecraft.client.sound.SoundManager;
 import net.minecraft.client.toast.SystemToast;
 import net.minecraft.sound.SoundCategory;
@@ -35,10 +37,16 @@ import java.nio.charset.StandardCharsets;
 
 public class JukeboxGameFeature extends GameFeature {
     private static final String DATA_RESOURCE_PATH = "assets/blockgame/data/config/music.json";
+    private static final String COMPILED_DATA_RESOURCE_PATH = "assets/blockgame/data/config/music.bin";
 
     private SoundManager soundManager;
     private MusicSoundInstance soundInstance;
 
+    // Music of the zone the player is about to enter, prepared ahead of time so that entering the zone doesn't hitch
+    private Music prefetchedMusic;
+    private MusicSoundInstance prefetchedSoundInstance;
+    private ClientPlayerEntity prefetchedForPlayer;
+
     // State trackers
     private Zone currentZone;
     private ZoneBoss currentBoss;
@@ -71,6 +79,16 @@ public class JukeboxGameFeature extends GameFeature {
         super.init(minecraftClient, blockgameClient);
         loadData();
 
+        // Get the music of the zone we're heading towards ready, or drop it if we turned away.
+        PlayerApproachingZoneEvent.EVENT.register((client, playerEntity, zone) -> {
+            if(zone != null) {
+                prefetchMusic(zone, playerEntity);
+            }
+            else {
+                clearPrefetchedMusic();
+            }
+        });
+
         // Play zone music when player enters zone.
         PlayerEnteredZoneEvent.EVENT.register((client, playerEntity, zone) -> {
             currentZone = zone;
@@ -192,6 +210,17 @@ public class JukeboxGameFeature extends GameFeature {
     }
 
     private void loadData() {
+        // Prefer the data table compiled at build time, the JSON file is only there as a fallback
+        try (InputStream inputStream = JukeboxGameFeature.class.getClassLoader().getResourceAsStream(COMPILED_DATA_RESOURCE_PATH)) {
+            if(inputStream != null) {
+                musicList = JsonMusicList.fromBinary(inputStream);
+                return;
+            }
+        }
+        catch (Exception e) {
+            BlockgameEnhanced.LOGGER.warn("Failed to load compiled music list, falling back to JSON: {}", e.getMessage());
+        }
+
         try {
             InputStream inputStream = JukeboxGameFeature.class.getClassLoader().getResourceAsStream(DATA_RESOURCE_PATH);
             String json = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
@@ -213,7 +242,8 @@ public class JukeboxGameFeature extends GameFeature {
      * @param bypassFade Whether to bypass the fade out.
      */
     public void playMusic(String music, boolean bypassFade, int delay) {
-        Music mus = getMusicById(music);
+        boolean isPrefetched = prefetchedMusic != null && prefetchedMusic.getId().equals(music);
+        Music mus = isPrefetched ? prefetchedMusic : getMusicById(music);
         if(mus == null) {
             return;
         }
@@ -236,7 +266,11 @@ public class JukeboxGameFeature extends GameFeature {
             desiredMusic = mus;
 
             BlockgameEnhanced.LOGGER.info("Now playing: " + music + " (" + getMusicSoundIndex() + ")");
-            soundInstance = new MusicSoundInstance(SoundEvent.of(mus.getSoundId(getMusicSoundIndex())), SoundCategory.MUSIC, 1f, 1f, playerEntity);
+            soundInstance = takePrefetchedSoundInstance(mus, playerEntity);
+            if(soundInstance == null) {
+                soundInstance = new MusicSoundInstance(SoundEvent.of(mus.getSoundId(getMusicSoundIndex())), SoundCategory.MUSIC, 1f, 1f, playerEntity);
+            }
+
             soundManager.play(soundInstance, delay);
             playing = true;
             return;
@@ -272,6 +306,82 @@ public class JukeboxGameFeature extends GameFeature {
         }
     }
 
+    /**
+     * Prepares the music of a zone before the player enters it.
+     * Resolves the music track and its sound instance, and starts loading the sound data in the background.
+     * @param zone The zone the player is about to enter.
+     * @param playerEntity The player, used as the sound source.
+     */
+    private void prefetchMusic(Zone zone, ClientPlayerEntity playerEntity) {
+        clearPrefetchedMusic();
+        if(soundManager == null || zone.getMusic() == null) {
+            return;
+        }
+
+        Music music = getMusicById(zone.getMusic());
+        if(music == null || music.getSoundId(getMusicSoundIndex()) == null) {
+            return;
+        }
+
+        prefetchedMusic = music;
+        prefetchedSoundInstance = new MusicSoundInstance(SoundEvent.of(music.getSoundId(getMusicSoundIndex())), SoundCategory.MUSIC, 1f, 1f, playerEntity);
+        prefetchedForPlayer = playerEntity;
+        warmUpSound(prefetchedSoundInstance);
+
+        // Boss zones will switch to their battle music soon after, so get that one ready too
+        if(zone.getBattle() != null) {
+            Music battleMusic = getMusicById(zone.getBattle().getMusic());
+            if(battleMusic != null && battleMusic.getSoundId(0) != null) {
+                warmUpSound(new MusicSoundInstance(SoundEvent.of(battleMusic.getSoundId(0)), SoundCategory.MUSIC, 1f, 1f, playerEntity));
+            }
+        }
+    }
+
+    /**
+     * Resolves the sound of a sound instance and starts decoding its audio data in the background.
+     * The sound loader caches decoded audio, so playing the sound later no longer has to wait for it.
+     * @param instance The sound instance to warm up.
+     */
+    private void warmUpSound(MusicSoundInstance instance) {
+        if(instance.getSoundSet(soundManager) == null) {
+            return;
+        }
+
+        // Streamed sounds open a fresh stream every time they're played, there is nothing to share
+        Sound sound = instance.getSound();
+        if(sound == null || sound == SoundManager.MISSING_SOUND || sound.isStreamed()) {
+            return;
+        }
+
+        soundManager.soundSystem.soundLoader.loadStatic(sound.getLocation());
+    }
+
+    /**
+     * Hands out the prefetched sound instance if it was prepared for the provided music track.
+     * @param music The music track that is about to play.
+     * @param playerEntity The player that the music will play for.
+     * @return The prefetched sound instance, null if there is none that can be used.
+     */
+    private MusicSoundInstance takePrefetchedSoundInstance(Music music, ClientPlayerEntity playerEntity) {
+        MusicSoundInstance instance = prefetchedSoundInstance;
+        boolean isUsable = instance != null
+                && music == prefetchedMusic
+                && instance.getId().equals(music.getSoundId(getMusicSoundIndex()))
+                && prefetchedForPlayer == playerEntity;
+
+        clearPrefetchedMusic();
+        return isUsable ? instance : null;
+    }
+
+    /**
+     * Drops any music that was prepared for a zone the player is no longer heading towards.
+     */
+    private void clearPrefetchedMusic() {
+        prefetchedMusic = null;
+        prefetchedSoundInstance = null;
+        prefetchedForPlayer = null;
+    }
+
     /**
      * Re-fetches what track should be playing and starts playing it anew.
      */
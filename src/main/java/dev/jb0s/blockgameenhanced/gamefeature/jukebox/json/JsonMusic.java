@@ -11,4 +11,13 @@ public class JsonMusic {
 
     @Getter
     private String[] soundIds;
+
+    public JsonMusic() {
+    }
+
+    public JsonMusic(String id, String type, String[] soundIds) {
+        this.id = id;
+        this.type = type;
+        this.soundIds = soundIds;
+    }
 }
@@ -1,8 +1,48 @@
 package dev.jb0s.blockgameenhanced.gamefeature.jukebox.json;
 
+import dev.jb0s.blockgameenhanced.helper.BinaryDataHelper;
 import lombok.Getter;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
 public class JsonMusicList {
     @Getter
     private JsonMusic[] music;
+
+    public JsonMusicList() {
+    }
+
+    public JsonMusicList(JsonMusic[] music) {
+        this.music = music;
+    }
+
+    /**
+     * Decodes a music list from the binary data table compiled at build time.
+     * @param inputStream Stream of the compiled music.bin resource.
+     * @return The decoded music list.
+     * @throws IOException If the data table is malformed or was compiled for a different format version.
+     */
+    public static JsonMusicList fromBinary(InputStream inputStream) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
+        BinaryDataHelper.readHeader(input, BinaryDataHelper.KIND_MUSIC);
+        String[] strings = BinaryDataHelper.readStringTable(input);
+
+        JsonMusic[] music = new JsonMusic[input.readInt()];
+        for (int i = 0; i < music.length; i++) {
+            String id = BinaryDataHelper.getString(strings, input.readInt());
+            String type = BinaryDataHelper.getString(strings, input.readInt());
+
+            String[] soundIds = new String[input.readInt()];
+            for (int j = 0; j < soundIds.length; j++) {
+                soundIds[j] = BinaryDataHelper.getString(strings, input.readInt());
+            }
+
+            music[i] = new JsonMusic(id, type, soundIds);
+        }
+
+        return new JsonMusicList(music);
+    }
 }
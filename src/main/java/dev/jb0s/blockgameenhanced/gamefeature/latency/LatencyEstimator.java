@@ -0,0 +1,108 @@
+package dev.jb0s.blockgameenhanced.gamefeature.latency;
+
+import java.util.Arrays;
+
+/**
+ * Running estimate of the round trip time to the server, fed by every latency sample we can get our hands on.
+ * Keeps a smoothed mean and jitter the same way TCP estimates its RTT (RFC 6298), plus the most recent samples in a
+ * fixed-size reservoir so that percentiles can be read out when a feature cares about the tail rather than the average.
+ */
+public class LatencyEstimator {
+    private static final int RESERVOIR_SIZE = 64;
+
+    // Gains used by TCP for SRTT and RTTVAR
+    private static final double MEAN_GAIN = 1.0 / 8.0;
+    private static final double JITTER_GAIN = 1.0 / 4.0;
+
+    private final int[] reservoir = new int[RESERVOIR_SIZE];
+    private final int[] sorted = new int[RESERVOIR_SIZE];
+    private int next;
+    private int sampleCount;
+    private boolean sortedIsStale;
+
+    private double mean;
+    private double jitter;
+
+    /**
+     * Feeds a round trip time measurement into the estimator.
+     * @param latencyMs Round trip time in milliseconds. Negative samples are ignored.
+     */
+    public void addSample(int latencyMs) {
+        if(latencyMs < 0) {
+            return;
+        }
+
+        if(sampleCount == 0) {
+            mean = latencyMs;
+            jitter = latencyMs / 2.0;
+        }
+        else {
+            jitter += JITTER_GAIN * (Math.abs(mean - latencyMs) - jitter);
+            mean += MEAN_GAIN * (latencyMs - mean);
+        }
+
+        reservoir[next] = latencyMs;
+        next = (next + 1) % RESERVOIR_SIZE;
+        sampleCount++;
+        sortedIsStale = true;
+    }
+
+    public boolean hasSamples() {
+        return sampleCount > 0;
+    }
+
+    /**
+     * @return Smoothed round trip time in milliseconds, 0 if there are no samples yet.
+     */
+    public int getMean() {
+        return (int) Math.round(mean);
+    }
+
+    /**
+     * @return Smoothed mean deviation of the round trip time in milliseconds.
+     */
+    public int getJitter() {
+        return (int) Math.round(jitter);
+    }
+
+    public int getP50() {
+        return getPercentile(0.5);
+    }
+
+    public int getP95() {
+        return getPercentile(0.95);
+    }
+
+    /**
+     * Gets a percentile of the most recent samples.
+     * @param percentile Percentile in range 0-1, e.g. 0.95.
+     * @return The round trip time in milliseconds that this share of recent samples was at or below, 0 if there are no samples yet.
+     */
+    public int getPercentile(double percentile) {
+        int count = Math.min(sampleCount, RESERVOIR_SIZE);
+        if(count == 0) {
+            return 0;
+        }
+
+        if(sortedIsStale) {
+            System.arraycopy(reservoir, 0, sorted, 0, count);
+            Arrays.sort(sorted, 0, count);
+            sortedIsStale = false;
+        }
+
+        // Nearest-rank percentile
+        int rank = (int) Math.ceil(percentile * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, rank))];
+    }
+
+    /**
+     * Forgets all samples.
+     */
+    public void reset() {
+        next = 0;
+        sampleCount = 0;
+        mean = 0;
+        jitter = 0;
+        sortedIsStale = true;
+    }
+}
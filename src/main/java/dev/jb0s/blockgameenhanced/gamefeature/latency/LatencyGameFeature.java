@@ -1,6 +1,7 @@
 package dev.jb0s.blockgameenhanced.gamefeature.latency;
 
 import dev.jb0s.blockgameenhanced.BlockgameEnhancedClient;
+import dev.jb0s.blockgameenhanced.event.network.ServerPingEvent;
 import dev.jb0s.blockgameenhanced.gamefeature.GameFeature;
 import dev.jb0s.blockgameenhanced.helper.NetworkHelper;
 import lombok.Getter;
@@ -10,60 +11,75 @@ import net.minecraft.client.MinecraftClient;
 public class LatencyGameFeature extends GameFeature {
 
     /**
-     * Allowable margin of error (both directions) for ping-event calculation.
+     * How often (in ticks) the tab list latency is sampled again while it hasn't changed.
+     * The server only updates it every few seconds, so sampling it every tick would drown out every other source.
      */
-    private static final int LATENCY_MARGIN_OF_ERROR = 15;
+    private static final int HEARTBEAT_RESAMPLE_TICKS = 100;
 
     @Getter
     private int heartbeatLatency;
 
-    @Getter
-    private boolean isClientCaughtUp;
-
+    private int lastHeartbeatSampleTick;
     private int tick;
 
     @Override
     public void init(MinecraftClient minecraftClient, BlockgameEnhancedClient blockgameClient) {
         super.init(minecraftClient, blockgameClient);
 
+        ServerPingEvent.EVENT.register(this::handleServerPing);
         ClientPlayConnectionEvents.JOIN.register((x, y, z) -> reset());
-        ClientPlayConnectionEvents.DISCONNECT.register((x, y) -> reset());
+        ClientPlayConnectionEvents.DISCONNECT.register((x, y) -> getMinecraftClient().execute(this::reset));
     }
 
     @Override
     public void tick() {
         ++tick;
-        heartbeatLatency = NetworkHelper.getNetworkLatency(getMinecraftClient().player);
 
-        // Eventually we want to stop using the pre-login ping, so once the client is caught up we can stop using that.
-        // Additionally, if 3500 ticks have passed, and we're still not caught up, the pre-login ping might have been a fluke. Discard it.
-        if((tick > 3500 && (BlockgameEnhancedClient.getPreLoginLatency() - heartbeatLatency > LATENCY_MARGIN_OF_ERROR)) && !isClientCaughtUp) {
-            isClientCaughtUp = true;
-            //catchUpReason = "Pre-login appears to be a fluke";
+        if(getMinecraftClient().player == null) {
+            return;
         }
-        else if(BlockgameEnhancedClient.getPreLoginLatency() - heartbeatLatency < LATENCY_MARGIN_OF_ERROR) {
-            isClientCaughtUp = true;
-            //catchUpReason = "Client is reasonable";
+
+        // The tab list latency reads 0 until the server first tells us about it, don't mistake that for a sample
+        int latency = NetworkHelper.getNetworkLatency(getMinecraftClient().player);
+        boolean isDueForSample = latency != heartbeatLatency || tick - lastHeartbeatSampleTick >= HEARTBEAT_RESAMPLE_TICKS;
+        if(latency > 0 && isDueForSample) {
+            BlockgameEnhancedClient.getLatencyEstimator().addSample(latency);
+            lastHeartbeatSampleTick = tick;
         }
 
+        heartbeatLatency = latency;
+
         // Update latency value
         BlockgameEnhancedClient.setLatency(getLatency());
     }
 
     /**
-     * Calculates a reliable latency value.
-     * @return Pre-login or Heartbeat latency depending on which is more accurate at the time.
+     * Feeds a ping result into the latency estimator. Runs on the network thread.
+     * @param roundTripMs Measured round trip time in milliseconds.
+     */
+    private void handleServerPing(long roundTripMs) {
+        getMinecraftClient().execute(() -> BlockgameEnhancedClient.getLatencyEstimator().addSample((int) roundTripMs));
+    }
+
+    /**
+     * Gets the best latency value we have.
+     * @return The smoothed mean of all latency samples, the heartbeat latency if there are none yet.
      */
     public int getLatency() {
-        int hb = heartbeatLatency;
-        int pl = BlockgameEnhancedClient.getPreLoginLatency();
-        int dif = BlockgameEnhancedClient.getPreLoginLatency() - heartbeatLatency;
-        return (dif > LATENCY_MARGIN_OF_ERROR && !isClientCaughtUp) ? pl : hb;
+        LatencyEstimator estimator = BlockgameEnhancedClient.getLatencyEstimator();
+        return estimator.hasSamples() ? estimator.getMean() : Math.max(heartbeatLatency, 0);
     }
 
     private void reset() {
         tick = 0;
-        isClientCaughtUp = false;
         heartbeatLatency = 0;
+        lastHeartbeatSampleTick = 0;
+
+        // The pre-login ping is the only measurement we have until the tab list catches up, so it seeds the estimate
+        LatencyEstimator estimator = BlockgameEnhancedClient.getLatencyEstimator();
+        estimator.reset();
+        if(BlockgameEnhancedClient.getPreLoginLatency() > 0) {
+            estimator.addSample(BlockgameEnhancedClient.getPreLoginLatency());
+        }
     }
 }
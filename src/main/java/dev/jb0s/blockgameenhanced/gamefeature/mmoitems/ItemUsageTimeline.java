@@ -0,0 +1,91 @@
+package dev.jb0s.blockgameenhanced.gamefeature.mmoitems;
+
+import dev.jb0s.blockgameenhanced.event.gamefeature.mmoitems.ItemUsageEvent;
+
+/**
+ * Fixed-capacity ring buffer of the most recent item usages, ordered by capture time.
+ * Once full, every new usage overwrites the oldest one, so memory use stays flat no matter how long the session runs.
+ */
+public class ItemUsageTimeline {
+    private final long[] timesMs;
+    private final ItemUsageEvent[] usages;
+    private int head;
+    private int size;
+
+    public ItemUsageTimeline(int capacity) {
+        timesMs = new long[capacity];
+        usages = new ItemUsageEvent[capacity];
+    }
+
+    /**
+     * Adds an item usage to the end of the timeline, overwriting the oldest usage if the timeline is full.
+     * @param usage The item usage to add.
+     */
+    public void add(ItemUsageEvent usage) {
+        // Keep the timeline sorted even if the wall clock steps back
+        long timeMs = size > 0 ? Math.max(usage.getTimeMs(), timesMs[physical(size - 1)]) : usage.getTimeMs();
+
+        int slot;
+        if(size < usages.length) {
+            slot = physical(size++);
+        }
+        else {
+            slot = head;
+            head = (head + 1) % usages.length;
+        }
+
+        timesMs[slot] = timeMs;
+        usages[slot] = usage;
+    }
+
+    /**
+     * Binary searches for the item usage captured closest to a point in time.
+     * @param targetMs Epoch in milliseconds to look for.
+     * @return The closest item usage, the earlier one if two are equally close. Null if the timeline is empty.
+     */
+    public ItemUsageEvent findClosest(long targetMs) {
+        if(size == 0) {
+            return null;
+        }
+
+        // Find the first usage captured at or after targetMs
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if(timesMs[physical(mid)] < targetMs) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+
+        if(low == size) {
+            return usages[physical(size - 1)];
+        }
+        if(low == 0) {
+            return usages[physical(0)];
+        }
+
+        long before = targetMs - timesMs[physical(low - 1)];
+        long after = timesMs[physical(low)] - targetMs;
+        return usages[physical(after < before ? low : low - 1)];
+    }
+
+    /**
+     * Removes all item usages, releasing the item stacks they hold on to.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            usages[physical(i)] = null;
+        }
+
+        head = 0;
+        size = 0;
+    }
+
+    private int physical(int index) {
+        return (head + index) % usages.length;
+    }
+}
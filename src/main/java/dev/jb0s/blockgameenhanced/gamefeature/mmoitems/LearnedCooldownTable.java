@@ -0,0 +1,128 @@
+package dev.jb0s.blockgameenhanced.gamefeature.mmoitems;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
+import dev.jb0s.blockgameenhanced.helper.PathHelper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+
+/**
+ * Cooldown durations learned from the [CD] messages the server sends, persisted in the blockgame config folder.
+ * Once an ability's duration has been observed the same way a few times in a row, we can show its cooldown the moment
+ * it's used instead of asking the server with a second right click.
+ */
+public class LearnedCooldownTable {
+    private static final String FILE_NAME = "learned_cooldowns.json";
+
+    /**
+     * Number of agreeing observations in a row before a duration is trusted.
+     */
+    private static final int CONFIDENT_SAMPLES = 3;
+
+    /**
+     * How far apart (in ticks) two observations can be while still agreeing. Covers rounding in the chat message and tick jitter.
+     */
+    private static final int TOLERANCE_TICKS = 2;
+
+    /**
+     * How long a trusted duration is used before we probe the server again, in case gear or stats changed it.
+     */
+    private static final long STALE_MS = 10 * 60 * 1000;
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private HashMap<String, LearnedCooldown> cooldowns = new HashMap<>();
+    private transient boolean dirty;
+
+    /**
+     * Gets the learned cooldown duration of an ability, if it's trustworthy.
+     * @param ability Ability ID, e.g. "FROSTBOLT"
+     * @param nowMs The current epoch in milliseconds.
+     * @return Duration in ticks, -1 if the ability is unknown, not confidently known, or hasn't been confirmed in a while.
+     */
+    public int getConfidentDuration(String ability, long nowMs) {
+        LearnedCooldown cooldown = cooldowns.get(ability);
+        if(cooldown == null || cooldown.samples < CONFIDENT_SAMPLES || nowMs - cooldown.lastObservedMs > STALE_MS) {
+            return -1;
+        }
+
+        return cooldown.durationTicks;
+    }
+
+    /**
+     * Records a cooldown duration that the server told us about.
+     * @param ability Ability ID, e.g. "FROSTBOLT"
+     * @param durationTicks The observed duration in ticks.
+     * @param nowMs The current epoch in milliseconds.
+     */
+    public void observe(String ability, int durationTicks, long nowMs) {
+        LearnedCooldown cooldown = cooldowns.computeIfAbsent(ability, x -> new LearnedCooldown());
+
+        if(cooldown.samples > 0 && Math.abs(cooldown.durationTicks - durationTicks) <= TOLERANCE_TICKS) {
+            // Agrees with what we knew, keep the longest one so we never show an ability as ready too early
+            cooldown.durationTicks = Math.max(cooldown.durationTicks, durationTicks);
+            cooldown.samples = Math.min(cooldown.samples + 1, CONFIDENT_SAMPLES);
+        }
+        else {
+            // First sighting, or the duration changed (e.g. different gear), start over
+            cooldown.durationTicks = durationTicks;
+            cooldown.samples = 1;
+        }
+
+        cooldown.lastObservedMs = nowMs;
+        dirty = true;
+    }
+
+    /**
+     * Loads the learned cooldowns from the blockgame config folder. Starts out empty if there's nothing to load.
+     */
+    public void load() {
+        Path path = getPath();
+        if(!Files.exists(path)) {
+            return;
+        }
+
+        try {
+            LearnedCooldownTable loaded = GSON.fromJson(Files.readString(path, StandardCharsets.UTF_8), LearnedCooldownTable.class);
+            if(loaded != null && loaded.cooldowns != null) {
+                cooldowns = loaded.cooldowns;
+            }
+        }
+        catch (Exception e) {
+            BlockgameEnhanced.LOGGER.error("Failed to load learned cooldowns from {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the learned cooldowns to the blockgame config folder, if anything was learned since the last save.
+     */
+    public void save() {
+        if(!dirty) {
+            return;
+        }
+
+        Path path = getPath();
+        try {
+            Files.writeString(path, GSON.toJson(this), StandardCharsets.UTF_8);
+            dirty = false;
+        }
+        catch (IOException e) {
+            BlockgameEnhanced.LOGGER.error("Failed to save learned cooldowns to {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static Path getPath() {
+        return PathHelper.getBlockgamePath().resolve(FILE_NAME);
+    }
+
+    static class LearnedCooldown {
+        int durationTicks;
+        int samples;
+        long lastObservedMs;
+    }
+}
@@ -0,0 +1,243 @@
+package dev.jb0s.blockgameenhanced.gamefeature.mmoitems;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.util.math.MathHelper;
+
+import java.util.Arrays;
+
+/**
+ * Cooldowns of all abilities, keyed by their interned ability id (see {@link #getAbilityId(String)}).
+ * Start and end ticks live in parallel arrays, expiry is driven by a min-heap ordered on end tick, and the progress of
+ * every active cooldown is computed at most once per frame into an array that the hotbar overlay reads from.
+ */
+public class MMOItemsCooldownStore {
+    private static final Object2IntOpenHashMap<String> ABILITY_IDS = new Object2IntOpenHashMap<>();
+
+    static {
+        ABILITY_IDS.defaultReturnValue(-1);
+    }
+
+    private int[] startTicks = new int[16];
+    private int[] endTicks = new int[16];
+    private float[] progress = new float[16];
+
+    // Position of every ability id in the heap, -1 if the ability is not cooling down
+    private int[] heapPositions = filled(16);
+    private int[] heap = new int[16];
+    private int heapSize;
+
+    // The point in time that the progress array was last computed for
+    private double progressTime = Double.NaN;
+
+    /**
+     * Interns an ability name into a small integer. The same name always maps to the same id for the rest of the session.
+     * @param ability Ability ID, e.g. "FROSTBOLT"
+     * @return The interned id of this ability.
+     */
+    public static synchronized int getAbilityId(String ability) {
+        int id = ABILITY_IDS.getInt(ability);
+        if(id == -1) {
+            id = ABILITY_IDS.size();
+            ABILITY_IDS.put(ability, id);
+        }
+
+        return id;
+    }
+
+    /**
+     * Is this ability currently cooling down?
+     * @param id Interned ability id.
+     * @return Whether there's an active cooldown for this ability.
+     */
+    public boolean isActive(int id) {
+        return id >= 0 && id < heapPositions.length && heapPositions[id] >= 0;
+    }
+
+    /**
+     * Starts or replaces the cooldown of an ability.
+     * @param id Interned ability id.
+     * @param startTick Tick at which the cooldown started.
+     * @param endTick Tick at which the cooldown ends.
+     */
+    public void set(int id, int startTick, int endTick) {
+        ensureCapacity(id + 1);
+        startTicks[id] = startTick;
+        endTicks[id] = endTick;
+
+        int position = heapPositions[id];
+        if(position >= 0) {
+            siftDown(siftUp(position));
+        }
+        else {
+            heap[heapSize] = id;
+            heapPositions[id] = heapSize;
+            siftUp(heapSize++);
+        }
+
+        invalidateProgress();
+    }
+
+    /**
+     * Clears the cooldown of an ability.
+     * @param id Interned ability id.
+     */
+    public void remove(int id) {
+        if(isActive(id)) {
+            removeAt(heapPositions[id]);
+            invalidateProgress();
+        }
+    }
+
+    /**
+     * Removes every cooldown that ended before the provided tick. Only touches the cooldowns that actually expire.
+     * @param tick The current tick.
+     */
+    public void expire(int tick) {
+        while (heapSize > 0 && endTicks[heap[0]] < tick) {
+            removeAt(0);
+        }
+    }
+
+    /**
+     * Removes all cooldowns.
+     */
+    public void clear() {
+        for (int i = 0; i < heapSize; i++) {
+            heapPositions[heap[i]] = -1;
+        }
+
+        heapSize = 0;
+        invalidateProgress();
+    }
+
+    /**
+     * Range 0-1 determining the percentage of completion of a cooldown, computed on the spot.
+     * @param id Interned ability id.
+     * @param now The current time in ticks, including progress into the current tick.
+     * @return Float ranging 0-1, 0 if the ability isn't cooling down.
+     */
+    public float getProgress(int id, double now) {
+        return isActive(id) ? computeProgress(id, now) : 0.0f;
+    }
+
+    /**
+     * Range 0-1 determining the percentage of completion of a cooldown, for rendering.
+     * The first call in a frame computes the progress of every active cooldown, the rest of the frame is an array read.
+     * @param id Interned ability id.
+     * @param now The current time in ticks, including progress into the current tick. Should be the same for the whole frame.
+     * @return Float ranging 0-1, 0 if the ability isn't cooling down.
+     */
+    public float getFrameProgress(int id, double now) {
+        if(!isActive(id)) {
+            return 0.0f;
+        }
+
+        if(now != progressTime) {
+            for (int i = 0; i < heapSize; i++) {
+                progress[heap[i]] = computeProgress(heap[i], now);
+            }
+
+            progressTime = now;
+        }
+
+        return progress[id];
+    }
+
+    private float computeProgress(int id, double now) {
+        float f = endTicks[id] - startTicks[id];
+        if(f <= 0.0f) {
+            return 0.0f;
+        }
+
+        float g = (float) (endTicks[id] - now);
+        return MathHelper.clamp(g / f, 0.0f, 1.0f);
+    }
+
+    private void invalidateProgress() {
+        progressTime = Double.NaN;
+    }
+
+    private void removeAt(int position) {
+        int id = heap[position];
+        heapPositions[id] = -1;
+
+        int last = heap[--heapSize];
+        if(position == heapSize) {
+            return;
+        }
+
+        heap[position] = last;
+        heapPositions[last] = position;
+        siftDown(siftUp(position));
+    }
+
+    /**
+     * Moves the entry at position up until its parent ends no later than it does.
+     * @return The new position of the entry.
+     */
+    private int siftUp(int position) {
+        int id = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if(endTicks[heap[parent]] <= endTicks[id]) {
+                break;
+            }
+
+            heap[position] = heap[parent];
+            heapPositions[heap[position]] = position;
+            position = parent;
+        }
+
+        heap[position] = id;
+        heapPositions[id] = position;
+        return position;
+    }
+
+    /**
+     * Moves the entry at position down until both its children end no earlier than it does.
+     */
+    private void siftDown(int position) {
+        int id = heap[position];
+        while (true) {
+            int child = position * 2 + 1;
+            if(child >= heapSize) {
+                break;
+            }
+            if(child + 1 < heapSize && endTicks[heap[child + 1]] < endTicks[heap[child]]) {
+                child++;
+            }
+            if(endTicks[id] <= endTicks[heap[child]]) {
+                break;
+            }
+
+            heap[position] = heap[child];
+            heapPositions[heap[position]] = position;
+            position = child;
+        }
+
+        heap[position] = id;
+        heapPositions[id] = position;
+    }
+
+    private void ensureCapacity(int size) {
+        if(size <= heapPositions.length) {
+            return;
+        }
+
+        int capacity = Math.max(size, heapPositions.length * 2);
+        int oldCapacity = heapPositions.length;
+
+        startTicks = Arrays.copyOf(startTicks, capacity);
+        endTicks = Arrays.copyOf(endTicks, capacity);
+        progress = Arrays.copyOf(progress, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+        heapPositions = Arrays.copyOf(heapPositions, capacity);
+        Arrays.fill(heapPositions, oldCapacity, capacity, -1);
+    }
+
+    private static int[] filled(int size) {
+        int[] array = new int[size];
+        Arrays.fill(array, -1);
+        return array;
+    }
+}
@@ -0,0 +1,188 @@
+package dev.jb0s.blockgameenhanced.gamefeature.mmoitems;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import lombok.Getter;
+import net.minecraft.nbt.AbstractNbtNumber;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything we read from an MMOItems stack's NBT, parsed once and cached on the stack (see {@link MMOItemsDescriptorHolder}).
+ * Instances are immutable.
+ */
+public class MMOItemsDescriptor {
+    public static final String NBT_DURABILITY = "MMOITEMS_DURABILITY";
+    public static final String NBT_MAX_DURABILITY = "MMOITEMS_MAX_DURABILITY";
+    public static final String NBT_MAX_CONSUME = "MMOITEMS_MAX_CONSUME";
+    public static final String NBT_ABILITY = "MMOITEMS_ABILITY";
+    public static final String NBT_TIER = "MMOITEMS_TIER";
+    public static final String NBT_ITEM_TYPE = "MMOITEMS_ITEM_TYPE";
+    public static final String NBT_DISABLE_INTERACTION = "MMOITEMS_DISABLE_INTERACTION";
+
+    /**
+     * Descriptor of every stack that has no NBT at all.
+     */
+    public static final MMOItemsDescriptor NONE = new MMOItemsDescriptor(null);
+
+    /**
+     * Every key a descriptor reads, in the order their elements are kept in.
+     */
+    private static final String[] KEYS = { NBT_ABILITY, NBT_MAX_DURABILITY, NBT_MAX_CONSUME, NBT_TIER, NBT_ITEM_TYPE, NBT_DISABLE_INTERACTION, NBT_DURABILITY };
+
+    private static final Gson GSON = new Gson();
+
+    // The NBT this descriptor was parsed from, and the element that was stored under each of KEYS at the time. Every put
+    // on a compound stores a new element, so comparing the elements tells whether the stack's NBT was changed in place.
+    private final NbtCompound source;
+    private final NbtElement[] sourceElements;
+
+    @Getter
+    private final List<String> abilityIds;
+
+    /**
+     * Interned id of {@link #getAbility()} in {@link MMOItemsCooldownStore}, -1 if the item has no abilities.
+     */
+    @Getter
+    private final int abilityIndex;
+
+    @Getter
+    private final int durability;
+
+    @Getter
+    private final int maxDurability;
+
+    @Getter
+    private final int maxConsume;
+
+    @Getter
+    private final String tier;
+
+    @Getter
+    private final String type;
+
+    @Getter
+    private final boolean interactionDisabled;
+
+    private MMOItemsDescriptor(NbtCompound nbt) {
+        source = nbt;
+        sourceElements = new NbtElement[nbt != null ? KEYS.length : 0];
+
+        if(nbt == null) {
+            abilityIds = Collections.emptyList();
+            abilityIndex = -1;
+            durability = 0;
+            maxDurability = 0;
+            maxConsume = 0;
+            tier = null;
+            type = null;
+            interactionDisabled = false;
+            return;
+        }
+
+        // Every key is looked up exactly once. NbtCompound's typed getters check contains() and then get() again.
+        for (int i = 0; i < KEYS.length; i++) {
+            sourceElements[i] = nbt.get(KEYS[i]);
+        }
+
+        abilityIds = parseAbilityIds(readString(sourceElements[0]));
+        abilityIndex = abilityIds.isEmpty() ? -1 : MMOItemsCooldownStore.getAbilityId(abilityIds.get(0));
+        maxDurability = readInt(sourceElements[1], 0);
+        maxConsume = readInt(sourceElements[2], 0);
+        tier = sourceElements[3] != null ? sourceElements[3].asString() : null;
+        type = readString(sourceElements[4]);
+        interactionDisabled = readInt(sourceElements[5], 0) != 0;
+
+        // Edge case for max durability items, they don't carry a durability value at all
+        durability = readInt(sourceElements[6], maxDurability);
+    }
+
+    /**
+     * Parses the MMOItems data out of a stack's NBT.
+     * @param nbt The stack's NBT, may be null.
+     * @return The descriptor for this NBT.
+     */
+    public static MMOItemsDescriptor of(NbtCompound nbt) {
+        return nbt != null ? new MMOItemsDescriptor(nbt) : NONE;
+    }
+
+    private static int readInt(NbtElement element, int fallback) {
+        return element instanceof AbstractNbtNumber number ? number.intValue() : fallback;
+    }
+
+    private static String readString(NbtElement element) {
+        return element instanceof NbtString string ? string.asString() : null;
+    }
+
+    private static List<String> parseAbilityIds(String json) {
+        if(json == null || json.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // This runs from vanilla's durability getters, so a malformed ability list must not throw
+        MMOItemsAbility[] abilities;
+        try {
+            abilities = GSON.fromJson(json, MMOItemsAbility[].class);
+        }
+        catch (JsonParseException e) {
+            return Collections.emptyList();
+        }
+
+        if(abilities == null) {
+            return Collections.emptyList();
+        }
+
+        List<String> ids = new ArrayList<>(abilities.length);
+        for (MMOItemsAbility ability : abilities) {
+            ids.add(ability.Id);
+        }
+
+        return Collections.unmodifiableList(ids);
+    }
+
+    /**
+     * Checks whether this descriptor is still up to date for a stack.
+     * Notices the compound being replaced, and any MMOItems key being put or removed on it. Changes made inside an
+     * element without replacing it (MMOItems keys only hold numbers and strings, which are immutable) aren't noticed.
+     * @param nbt The stack's current NBT.
+     * @return Whether this descriptor was parsed from exactly this NBT, and none of its MMOItems keys changed since.
+     */
+    public boolean isParsedFrom(NbtCompound nbt) {
+        if(source != nbt) {
+            return false;
+        }
+
+        for (int i = 0; i < sourceElements.length; i++) {
+            if(nbt.get(KEYS[i]) != sourceElements[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public boolean hasDurability() {
+        return maxDurability > 0;
+    }
+
+    public boolean hasAbility() {
+        return !abilityIds.isEmpty();
+    }
+
+    /**
+     * Gets the first ability of this item, which is the one that the item casts.
+     * @return Ability ID, e.g. "FROSTBOLT". Null if the item has no abilities.
+     */
+    public String getAbility() {
+        return abilityIds.isEmpty() ? null : abilityIds.get(0);
+    }
+
+    public int getDamage() {
+        return hasDurability() ? maxDurability - durability : 0;
+    }
+}
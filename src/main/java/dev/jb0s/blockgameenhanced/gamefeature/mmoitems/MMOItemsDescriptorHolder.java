@@ -0,0 +1,12 @@
+package dev.jb0s.blockgameenhanced.gamefeature.mmoitems;
+
+/**
+ * Implemented by every ItemStack through MixinItemStack. Cast an ItemStack to this to get at its cached MMOItems data.
+ */
+public interface MMOItemsDescriptorHolder {
+    /**
+     * Gets the MMOItems data of this stack. Parsed from NBT the first time it's needed, and again only once the NBT changes.
+     * @return The MMOItems descriptor, MMOItemsDescriptor.NONE if this stack has no NBT.
+     */
+    MMOItemsDescriptor getMMOItemsDescriptor();
+}
@@ -1,14 +1,15 @@
 package dev.jb0s.blockgameenhanced.gamefeature.mmoitems;
 
-import com.google.common.collect.Maps;
-import com.google.gson.Gson;
 import com.mojang.blaze3d.systems.RenderSystem;
 import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
 import dev.jb0s.blockgameenhanced.BlockgameEnhancedClient;
-import dev.jb0s.blockgameenhanced.event.chat.ReceiveChatMessageEvent;
+import dev.jb0s.blockgameenhanced.event.chat.ParsedChatMessage;
+import dev.jb0s.blockgameenhanced.event.chat.ReceiveChatMessageRouter;
 import dev.jb0s.blockgameenhanced.event.gamefeature.mmoitems.ItemUsageEvent;
 import dev.jb0s.blockgameenhanced.event.renderer.item.ItemRendererDrawEvent;
 import dev.jb0s.blockgameenhanced.gamefeature.GameFeature;
+import dev.jb0s.blockgameenhanced.gamefeature.latency.LatencyEstimator;
+import dev.jb0s.blockgameenhanced.gui.ItemOverlayBatch;
 import dev.jb0s.blockgameenhanced.helper.DebugHelper;
 import dev.jb0s.blockgameenhanced.helper.MMOItemHelper;
 import lombok.Getter;
@@ -24,8 +25,8 @@ import net.minecraft.client.network.ClientPlayerInteractionManager;
 import net.minecraft.client.render.*;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NbtCompound;
 import net.minecraft.network.packet.c2s.play.PlayerInteractItemC2SPacket;
+import net.minecraft.text.Text;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.Hand;
 import net.minecraft.util.TypedActionResult;
@@ -34,31 +35,59 @@ import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.GameMode;
 import net.minecraft.world.World;
 
-import java.util.ArrayList;
-import java.util.Map;
 
 public class MMOItemsGameFeature extends GameFeature {
+    private static final int ITEM_USAGE_CAPACITY = 64;
+    private static final int SCHEDULER_WIDTH = 16;
+
+    /**
+     * How many ticks after an ability use we send the second right click that makes the server reply with the cooldown.
+     */
+    private static final int PROBE_DELAY_TICKS = 2;
+
+    /**
+     * How far (in ms) a [CD] message may land from where we expect a probe's reply, and still be learned from.
+     */
+    private static final int PROBE_MATCH_WINDOW_MS = 500;
+
+    /**
+     * How long (in ms, on top of the round trip) after an ability use a [CD] message is still taken to be about that use.
+     * Messages that don't belong to a use we know about are left in chat.
+     */
+    private static final int USAGE_MATCH_WINDOW_MS = 1000;
+
+    // Depth of the slot overlays. The cooldown fill sits above the item but below the stack count, the charge counter on top.
+    private static final float COOLDOWN_OVERLAY_Z = 190.0f;
+    private static final float CHARGE_COUNTER_Z = 210.0f;
+
     @Getter
     @Setter
     private MMOItemsCooldownEntry globalCooldown;
 
-    private final Gson gson = new Gson();
-    private final Map<String, MMOItemsCooldownEntry> cooldownEntryMap = Maps.newHashMap();
-    private final ArrayList<ScheduledItemUsePacket> scheduledPackets = new ArrayList<>();
-    private final ArrayList<ItemUsageEvent> capturedItemUsages = new ArrayList<>();
+    private final MMOItemsCooldownStore cooldowns = new MMOItemsCooldownStore();
+    private final TimingWheel<PlayerInteractItemC2SPacket> scheduledPackets = new TimingWheel<>(SCHEDULER_WIDTH);
+    private final ItemUsageTimeline capturedItemUsages = new ItemUsageTimeline(ITEM_USAGE_CAPACITY);
+    private final LearnedCooldownTable learnedCooldowns = new LearnedCooldownTable();
     private int tick;
 
+    // When the last ability use was captured. Written on the client thread, read by the chat parser on the network thread.
+    private volatile long lastItemUsageTimeMs = Long.MIN_VALUE;
+
     @Override
     public void init(MinecraftClient minecraftClient, BlockgameEnhancedClient blockgameClient) {
         super.init(minecraftClient, blockgameClient);
 
         UseBlockCallback.EVENT.register(this::preventIllegalMMOItemsInteraction);
         UseItemCallback.EVENT.register(this::repeatItemUseForCooldownMessage);
-        ReceiveChatMessageEvent.EVENT.register(this::visualizeCooldown);
+        ReceiveChatMessageRouter.registerPrefix("[CD]", this::parseCooldownMessage, this::visualizeCooldown);
         ItemRendererDrawEvent.EVENT.register(this::drawItemCooldownOverlay);
         ItemRendererDrawEvent.EVENT.register(this::drawItemChargeCounter);
         ClientPlayConnectionEvents.JOIN.register((x, y, z) -> reset());
-        ClientPlayConnectionEvents.DISCONNECT.register((x, y) -> reset());
+        ClientPlayConnectionEvents.DISCONNECT.register((x, y) -> getMinecraftClient().execute(() -> {
+            reset();
+            learnedCooldowns.save();
+        }));
+        learnedCooldowns.load();
         globalCooldown = new MMOItemsCooldownEntry(0, 0);
     }
 
@@ -66,30 +95,17 @@ public class MMOItemsGameFeature extends GameFeature {
      * Draws charge count for items with charges
      */
     private ActionResult drawItemChargeCounter(DrawContext context, TextRenderer textRenderer, ItemStack itemStack, int x, int y, String countLabel) {
-        NbtCompound nbt = itemStack.getOrCreateNbt();
-
         if(BlockgameEnhanced.isNotkerMmoPresent()) {
             // Compatibility with Notker's McMMO Item Durability viewer.
             return ActionResult.PASS;
         }
 
-        if(nbt.getInt("MMOITEMS_MAX_CONSUME") != 0 && itemStack.getCount() == 1) {
-            String chargeCountString = countLabel == null ? String.valueOf(nbt.getInt("MMOITEMS_MAX_CONSUME")) : countLabel;
-            VertexConsumerProvider.Immediate immediate = VertexConsumerProvider.immediate(Tessellator.getInstance().getBuffer());
-
-            // We don't need to revert this because we push to the stack before the event is fired and pop it after the event is finished
-            context.getMatrices().translate(0.0f, 0.0f, 210.0f);
+        int maxConsume = MMOItemHelper.getDescriptor(itemStack).getMaxConsume();
+        if(maxConsume != 0 && itemStack.getCount() == 1) {
+            String chargeCountString = countLabel == null ? String.valueOf(maxConsume) : countLabel;
 
-            // Shitty outline (Notch did it first!)
-            context.drawText(textRenderer, chargeCountString, (x + 19 - 2 - textRenderer.getWidth(chargeCountString)) + 1, (y + 6 + 3), 0x000000, false);
-            context.drawText(textRenderer, chargeCountString, (x + 19 - 2 - textRenderer.getWidth(chargeCountString)) - 1, (y + 6 + 3), 0x000000, false);
-            context.drawText(textRenderer, chargeCountString, (x + 19 - 2 - textRenderer.getWidth(chargeCountString)), (y + 6 + 3) + 1, 0x000000, false);
-            context.drawText(textRenderer, chargeCountString, (x + 19 - 2 - textRenderer.getWidth(chargeCountString)), (y + 6 + 3) - 1, 0x000000, false);
-
-            // Draw actual text
-            context.drawText(textRenderer, chargeCountString, (x + 19 - 2 - textRenderer.getWidth(chargeCountString)), (y + 6 + 3), 0x7EFC20, false);
-
-            immediate.draw();
+            // Drawn together with every other slot overlay at the end of the frame, with a black outline
+            ItemOverlayBatch.queueLabel(context.getMatrices(), textRenderer, chargeCountString, x + 19 - 2, y + 6 + 3, CHARGE_COUNTER_Z, 0x7EFC20, 0x000000);
             return ActionResult.SUCCESS;
         }
 
@@ -100,21 +116,15 @@ public class MMOItemsGameFeature extends GameFeature {
      * Draw cooldown for items
      */
     private ActionResult drawItemCooldownOverlay(DrawContext context, TextRenderer textRenderer, ItemStack itemStack, int x, int y, String countLabel) {
-        NbtCompound nbt = itemStack.getOrCreateNbt();
-        String tag = nbt.getString("MMOITEMS_ABILITY");
-        if(tag != null) {
-            MMOItemsAbility[] itemAbilities = gson.fromJson(tag, MMOItemsAbility[].class);
-            if(itemAbilities != null && itemAbilities.length > 0) {
-                float cooldownProgressForThisStack = getCooldownProgress(itemAbilities[0].Id, MinecraftClient.getInstance().getTickDelta());
-                float globalCooldownProgress = getCooldownProgress(getGlobalCooldown(), MinecraftClient.getInstance().getTickDelta());
-                float cd = cooldownProgressForThisStack == 0.0f ? globalCooldownProgress : cooldownProgressForThisStack;
-
-                // We don't need to revert this because we push to the stack before the event is fired and pop it after the event is finished
-                context.getMatrices().translate(0.0f, 0.0f, 200.0f);
-
-                if (cd > 0.0f) {
-                    context.fill(x, y + MathHelper.floor(16.0f * (1.0f - cd)), x + 16, y + 16, Integer.MAX_VALUE);
-                }
+        int ability = MMOItemHelper.getDescriptor(itemStack).getAbilityIndex();
+        if(ability != -1) {
+            float cooldownProgressForThisStack = cooldowns.getFrameProgress(ability, BlockgameEnhancedClient.getServerClock().getTicks(MinecraftClient.getInstance().getTickDelta()));
+            float globalCooldownProgress = getCooldownProgress(getGlobalCooldown(), MinecraftClient.getInstance().getTickDelta());
+            float cd = cooldownProgressForThisStack == 0.0f ? globalCooldownProgress : cooldownProgressForThisStack;
+
+            // Drawn together with every other slot overlay at the end of the frame
+            if (cd > 0.0f) {
+                ItemOverlayBatch.queueFill(context.getMatrices(), x, y + MathHelper.floor(16.0f * (1.0f - cd)), x + 16, y + 16, COOLDOWN_OVERLAY_Z, Integer.MAX_VALUE);
             }
         }
 
@@ -122,7 +132,7 @@ public class MMOItemsGameFeature extends GameFeature {
     }
 
     @Override
-    public synchronized void tick() {
+    public void tick() {
         ++tick;
 
         if(getMinecraftClient().player == null) {
@@ -130,7 +140,7 @@ public class MMOItemsGameFeature extends GameFeature {
         }
 
         // Remove expired cooldowns
-        cooldownEntryMap.entrySet().removeIf(x -> tick > x.getValue().endTick);
+        cooldowns.expire(BlockgameEnhancedClient.getServerClock().getCurrentTick());
 
         // Send any scheduled packets
         if(!scheduledPackets.isEmpty()) {
@@ -139,19 +149,8 @@ public class MMOItemsGameFeature extends GameFeature {
                 return;
             }
 
-            ScheduledItemUsePacket[] list = getCooldownPacketsSafe();
-            for(ScheduledItemUsePacket packet : list) {
-                // If it is not time to send this packet yet, skip it
-                if (packet.endTick > tick) {
-                    continue;
-                }
-
-                // Send the packet to trigger a cooldown message
-                getMinecraftClient().getNetworkHandler().sendPacket(packet.packet);
-            }
-
-            // Remove expired packets (the ones we've just sent)
-            scheduledPackets.removeIf(x -> tick > x.endTick);
+            // Send the packets that are due to trigger a cooldown message
+            scheduledPackets.advance(tick, getMinecraftClient().getNetworkHandler()::sendPacket);
         }
     }
 
@@ -165,12 +164,11 @@ public class MMOItemsGameFeature extends GameFeature {
      */
     public ActionResult preventIllegalMMOItemsInteraction(PlayerEntity playerEntity, World world, Hand hand, BlockHitResult blockHitResult) {
         ItemStack handItem = playerEntity.getStackInHand(hand);
-        NbtCompound nbt = handItem.getOrCreateNbt();
 
         // If we have a tag named MMOITEMS_DISABLE_INTERACTION set to true, we need to block placement.
         // If there's a block entity where we clicked, and the player is not sneaking, then the player
         // is trying to interact with a block entity. In that case, we need to let it pass through.
-        if(nbt.getBoolean("MMOITEMS_DISABLE_INTERACTION")) {
+        if(MMOItemHelper.isMMOInteractionDisabled(handItem)) {
             BlockEntity b = world.getBlockEntity(blockHitResult.getBlockPos());
             boolean isTryingToInteractWithBlockEntity = b != null && !playerEntity.isSneaking();
 
@@ -187,7 +185,7 @@ public class MMOItemsGameFeature extends GameFeature {
      * @param hand The hand that contains the item the Player Entity is trying to use.
      * @return Always returns PASS, whether the routine was successful or not.
      */
-    public synchronized TypedActionResult<ItemStack> repeatItemUseForCooldownMessage(PlayerEntity playerEntity, World world, Hand hand) {
+    public TypedActionResult<ItemStack> repeatItemUseForCooldownMessage(PlayerEntity playerEntity, World world, Hand hand) {
         MinecraftClient client = MinecraftClient.getInstance();
         ClientPlayerInteractionManager interactionManager = client.interactionManager;
         ItemStack stack = playerEntity.getStackInHand(hand);
@@ -200,55 +198,112 @@ public class MMOItemsGameFeature extends GameFeature {
         }
 
         // If item in hand doesn't have an MMOItems ability, skip
-        if(!MMOItemHelper.hasMMOAbility(stack)) {
+        String ability = MMOItemHelper.getMMOAbility(stack);
+        if(ability == null) {
+            return TypedActionResult.pass(stack);
+        }
+
+        // If we've learned how long this ability's cooldown is, show it right away instead of asking the server
+        int learnedDuration = learnedCooldowns.getConfidentDuration(ability, System.currentTimeMillis());
+        if(learnedDuration > 0) {
+            if(!isCoolingDown(ability)) {
+                setCooldown(ability, learnedDuration);
+            }
+
+            captureItemUsage(stack, false);
             return TypedActionResult.pass(stack);
         }
 
         // This item has an ability, resend the right click packet to trigger a cooldown message from the server, which we then use for the hotbar
-        scheduledPackets.add(new ScheduledItemUsePacket(new PlayerInteractItemC2SPacket(hand, tick), tick, tick + 2));
-        captureItemUsage(stack);
+        scheduledPackets.schedule(tick + PROBE_DELAY_TICKS, new PlayerInteractItemC2SPacket(hand, tick));
+        captureItemUsage(stack, true);
 
         return TypedActionResult.pass(stack);
     }
 
     /**
-     * Callback that scans chat messages for cooldown values to display in the hotbar.
+     * Parses a cooldown message. Runs on the network thread.
      * @param client The MinecraftClient instance.
      * @param message The received message in String format.
-     * @return Always returns PASS, whether the routine was successful or not.
+     * @param text The received message, kept as is in case it has to go into chat after all.
+     * @return The parsed cooldown message, null if cooldowns aren't shown in the hotbar or no ability use is pending.
      */
-    public synchronized ActionResult visualizeCooldown(MinecraftClient client, String message) {
+    private CooldownMessage parseCooldownMessage(MinecraftClient client, String message, Text text) {
         boolean moduleEnabled = BlockgameEnhanced.getConfig().getIngameHudConfig().showCooldownsInHotbar;
-        if(!moduleEnabled) return ActionResult.PASS;
+        if(!moduleEnabled) return null;
 
-        if(!message.startsWith("[CD]")) {
-            return ActionResult.PASS;
+        // Only a message that can be a reply to one of our ability uses ends up in the hotbar, anything else stays in chat
+        long receivedTimeMs = System.currentTimeMillis();
+        if(!isItemUsagePending(receivedTimeMs, BlockgameEnhancedClient.getLatency())) {
+            return null;
         }
 
-        ItemUsageEvent itemUsage = getItemUsage();
-        if(itemUsage == null) {
-            return ActionResult.PASS;
+        // Extract cooldown length from chat message
+        String[] spl = message.split(" ");
+        String sec = spl[1].replace("s", "").trim();
+        float fSec = Float.parseFloat(sec);
+
+        // We're showing the cooldown in the hotbar, so it doesn't need to show up in chat
+        return new CooldownMessage((int)(fSec * 20), receivedTimeMs, text, true);
+    }
+
+    /**
+     * Could a message that arrived at this point in time be the reply to an ability use? Safe to call from any thread.
+     * @param receivedTimeMs Epoch in milliseconds at which the message arrived.
+     * @param latency Round trip time to the server in milliseconds.
+     * @return Whether an ability was used recently enough for this message to be about it.
+     */
+    private boolean isItemUsagePending(long receivedTimeMs, int latency) {
+        long usageTimeMs = lastItemUsageTimeMs;
+        return usageTimeMs != Long.MIN_VALUE && receivedTimeMs - usageTimeMs <= latency + PROBE_DELAY_TICKS * 50L + USAGE_MATCH_WINDOW_MS;
+    }
+
+    /**
+     * Callback that applies cooldown values from chat messages, to display in the hotbar.
+     * @param message The parsed cooldown message.
+     */
+    private void visualizeCooldown(CooldownMessage message) {
+        // Find the item usage this message is a response to, based on when the message arrived rather than when we got around to it.
+        // The median is used here, a single lag spike shouldn't throw off which usage we pick.
+        LatencyEstimator latencyEstimator = BlockgameEnhancedClient.getLatencyEstimator();
+        int typicalLatency = latencyEstimator.hasSamples() ? latencyEstimator.getP50() : BlockgameEnhancedClient.getLatency();
+        ItemUsageEvent itemUsage = getItemUsage(message.receivedTimeMs(), typicalLatency);
+        long usageOffset = itemUsage == null ? Long.MAX_VALUE : message.receivedTimeMs() - typicalLatency - itemUsage.getTimeMs();
+        if(itemUsage == null || Math.abs(usageOffset) > PROBE_DELAY_TICKS * 50L + USAGE_MATCH_WINDOW_MS) {
+            showCooldownMessage(message);
+            return;
         }
 
         ItemStack stack = itemUsage.getItemStack();
 
         // If item in hand doesn't have an MMOItems ability, skip
         if(!MMOItemHelper.hasMMOAbility(stack)) {
-            return ActionResult.PASS;
+            showCooldownMessage(message);
+            return;
         }
 
-        // Extract cooldown length from chat message
-        String[] spl = message.split(" ");
-        String sec = spl[1].replace("s", "").trim();
-        float fSec = Float.parseFloat(sec);
-        int ticks = (int)(fSec * 20);
+        int ticks = message.durationTicks();
 
         // Add latency to cooldown length
         ticks += (BlockgameEnhancedClient.getLatency() / 1000) * 20;
 
         // Get MMOAbility and set a cooldown for it
         String abil = MMOItemHelper.getMMOAbility(stack);
-        if(abil != null) {
+        if(abil == null) {
+            showCooldownMessage(message);
+        }
+        else {
+            // Only a reply to our own probe tells us the full duration, any other [CD] message is the time that's left
+            long probeReplyOffset = Math.abs(message.receivedTimeMs() - typicalLatency - itemUsage.getTimeMs());
+            if(itemUsage.isProbe() && !isCoolingDown(abil) && probeReplyOffset <= PROBE_MATCH_WINDOW_MS) {
+                // The probe went out a little after the ability was used, so the reply is short by that much
+                learnedCooldowns.observe(abil, message.durationTicks() + PROBE_DELAY_TICKS, message.receivedTimeMs());
+
+                // The time between sending the probe and getting its reply is a round trip as well
+                long probeRoundTripMs = message.receivedTimeMs() - itemUsage.getTimeMs() - PROBE_DELAY_TICKS * 50L;
+                latencyEstimator.addSample((int) probeRoundTripMs);
+            }
+
             setCooldown(abil, ticks);
 
             // how did I forget to not make it spam GCD
@@ -257,8 +312,15 @@ public class MMOItemsGameFeature extends GameFeature {
                 setGlobalCooldown(new MMOItemsCooldownEntry(tick, tick + 20)); // gcd 1.0s
             }*/
         }
+    }
 
-        return ActionResult.SUCCESS;
+    /**
+     * Puts a cooldown message that we held back, but couldn't match to an ability use, into chat after all.
+     * Handlers run in the order messages arrived in, so it lands where it would have been in the first place.
+     * @param message The parsed cooldown message.
+     */
+    private void showCooldownMessage(CooldownMessage message) {
+        getMinecraftClient().inGameHud.getChatHud().addMessage(message.text());
     }
 
     /**
@@ -277,12 +339,7 @@ public class MMOItemsGameFeature extends GameFeature {
      * @return Float ranging 0-1.
      */
     public float getCooldownProgress(String ability, float partialTicks) {
-        MMOItemsCooldownEntry entry = cooldownEntryMap.get(ability);
-        if(entry != null) {
-            return getCooldownProgress(entry, partialTicks);
-        }
-
-        return 0.0f;
+        return cooldowns.getProgress(MMOItemsCooldownStore.getAbilityId(ability), BlockgameEnhancedClient.getServerClock().getTicks(partialTicks));
     }
 
     /**
@@ -294,7 +351,7 @@ public class MMOItemsGameFeature extends GameFeature {
     public float getCooldownProgress(MMOItemsCooldownEntry entry, float partialTicks) {
         if(entry != null) {
             float f = entry.endTick - entry.startTick;
-            float g = (float) entry.endTick - ((float)tick + partialTicks);
+            float g = (float) (entry.endTick - BlockgameEnhancedClient.getServerClock().getTicks(partialTicks));
             return MathHelper.clamp(g / f, 0.0f, 1.0f);
         }
 
@@ -307,8 +364,10 @@ public class MMOItemsGameFeature extends GameFeature {
      * @param durationTicks
      */
     public void setCooldown(String ability, int durationTicks) {
-        if(!cooldownEntryMap.containsKey(ability)) {
-            cooldownEntryMap.put(ability, new MMOItemsCooldownEntry(tick, tick + durationTicks));
+        int id = MMOItemsCooldownStore.getAbilityId(ability);
+        if(!cooldowns.isActive(id)) {
+            int now = BlockgameEnhancedClient.getServerClock().getCurrentTick();
+            cooldowns.set(id, now, now + durationTicks);
         }
     }
 
@@ -317,60 +376,51 @@ public class MMOItemsGameFeature extends GameFeature {
      * @param ability Ability ID, e.g. "FROSTBOLT"
      */
     public void removeCooldown(String ability) {
-        cooldownEntryMap.remove(ability);
+        cooldowns.remove(MMOItemsCooldownStore.getAbilityId(ability));
     }
 
     public void captureItemUsage(ItemStack itemStack) {
-        ItemUsageEvent event = new ItemUsageEvent(itemStack);
+        captureItemUsage(itemStack, false);
+    }
+
+    /**
+     * Remembers that an item was used, so that a later [CD] message can be matched to it.
+     * @param itemStack The item stack that was used.
+     * @param probe Whether a second right click was scheduled to make the server reply with the cooldown.
+     */
+    public void captureItemUsage(ItemStack itemStack, boolean probe) {
+        ItemUsageEvent event = new ItemUsageEvent(itemStack, probe);
         capturedItemUsages.add(event);
+        lastItemUsageTimeMs = event.getTimeMs();
     }
 
     /**
      * Resets all the values.
      */
-    private synchronized void reset() {
+    private void reset() {
         tick = 0;
-        cooldownEntryMap.clear();
+        cooldowns.clear();
         scheduledPackets.clear();
         capturedItemUsages.clear();
+        lastItemUsageTimeMs = Long.MIN_VALUE;
     }
 
-    public synchronized ItemUsageEvent getItemUsage() {
+    public ItemUsageEvent getItemUsage() {
         return getItemUsage(BlockgameEnhancedClient.getLatency());
     }
 
-    public synchronized ItemUsageEvent getItemUsage(int latency) {
-        long targetLatency = System.currentTimeMillis() - latency;
-
-        ItemUsageEvent winning = null;
-        long winningLatency = Long.MAX_VALUE;
-
-        for (ItemUsageEvent e : capturedItemUsages) {
-            long dif = Math.abs(e.getTimeMs() - targetLatency);
-
-            if(dif < winningLatency) {
-                winningLatency = dif;
-                winning = e;
-            }
-        }
-
-        return winning;
-    }
-
-    /**
-     * Gets a clone of the cooldown hashmap to avoid multithread madness.
-     * todo: Replace with a better solution that doesn't impact memory. (not like this game isn't garbage memory wise anyways)
-     */
-    private synchronized MMOItemsCooldownEntry[] getCooldownsSafe() {
-        return cooldownEntryMap.values().toArray(new MMOItemsCooldownEntry[0]);
+    public ItemUsageEvent getItemUsage(int latency) {
+        return getItemUsage(System.currentTimeMillis(), latency);
     }
 
     /**
-     * Gets a clone of the scheduled packet list to avoid multithread madness.
-     * todo: Replace with a better solution that doesn't impact memory. (not like this game isn't garbage memory wise anyways)
+     * Finds the captured item usage that a server response is most likely a response to.
+     * @param timeMs Epoch in milliseconds at which the response arrived.
+     * @param latency Round trip time to the server in milliseconds.
+     * @return The item usage closest to timeMs - latency out of the most recent ones, null if none were captured.
      */
-    private synchronized ScheduledItemUsePacket[] getCooldownPacketsSafe() {
-        return scheduledPackets.toArray(new ScheduledItemUsePacket[0]);
+    public ItemUsageEvent getItemUsage(long timeMs, int latency) {
+        return capturedItemUsages.findClosest(timeMs - latency);
     }
 
     /**
@@ -388,5 +438,5 @@ public class MMOItemsGameFeature extends GameFeature {
     }
 
     record MMOItemsCooldownEntry(int startTick, int endTick) { }
-    record ScheduledItemUsePacket(PlayerInteractItemC2SPacket packet, int startTick, int endTick) { }
+    record CooldownMessage(int durationTicks, long receivedTimeMs, Text text, boolean suppress) implements ParsedChatMessage { }
 }
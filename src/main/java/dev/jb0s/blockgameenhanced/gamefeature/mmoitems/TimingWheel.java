@@ -0,0 +1,96 @@
+package dev.jb0s.blockgameenhanced.gamefeature.mmoitems;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel with one bucket per tick. Scheduling and firing are O(1); every tick only the bucket for that
+ * tick is visited. Items scheduled further ahead than the wheel is wide simply stay in their bucket for extra rounds.
+ * @param <T> Type of the scheduled items.
+ */
+public class TimingWheel<T> {
+    private final ArrayList<Entry<T>>[] buckets;
+    private final int mask;
+    private int lastTick = Integer.MIN_VALUE;
+    private int size;
+
+    /**
+     * @param width Number of buckets, rounded up to a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int width) {
+        int bucketCount = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        buckets = new ArrayList[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+
+        mask = bucketCount - 1;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Schedules an item to fire on a tick.
+     * @param dueTick The tick on which the item should fire. Ticks that have already been advanced past fire on the next one.
+     * @param item The item to schedule.
+     */
+    public void schedule(int dueTick, T item) {
+        // Anything that is already overdue fires on the next advance instead of a full round later
+        if(lastTick != Integer.MIN_VALUE && dueTick <= lastTick) {
+            dueTick = lastTick + 1;
+        }
+
+        buckets[dueTick & mask].add(new Entry<>(dueTick, item));
+        size++;
+    }
+
+    /**
+     * Fires every item that is due on or before the provided tick, in tick order. Ticks that were skipped since the
+     * last call are caught up on.
+     * @param tick The current tick.
+     * @param action Callback that receives every item that fires.
+     */
+    public void advance(int tick, Consumer<T> action) {
+        // After a reset (or a gap wider than the wheel), each bucket is visited exactly once
+        int from = lastTick == Integer.MIN_VALUE || tick - lastTick > buckets.length ? tick - mask : lastTick + 1;
+        lastTick = tick;
+
+        for (int t = from; t <= tick && size > 0; t++) {
+            ArrayList<Entry<T>> bucket = buckets[t & mask];
+            if(bucket.isEmpty()) {
+                continue;
+            }
+
+            int kept = 0;
+            for (int i = 0; i < bucket.size(); i++) {
+                Entry<T> entry = bucket.get(i);
+                if(entry.dueTick() <= tick) {
+                    size--;
+                    action.accept(entry.item());
+                }
+                else {
+                    bucket.set(kept++, entry);
+                }
+            }
+
+            bucket.subList(kept, bucket.size()).clear();
+        }
+    }
+
+    /**
+     * Removes all scheduled items.
+     */
+    public void clear() {
+        for (ArrayList<Entry<T>> bucket : buckets) {
+            bucket.clear();
+        }
+
+        size = 0;
+        lastTick = Integer.MIN_VALUE;
+    }
+
+    record Entry<T>(int dueTick, T item) { }
+}
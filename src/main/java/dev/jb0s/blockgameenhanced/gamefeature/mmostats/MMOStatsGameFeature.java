@@ -2,13 +2,16 @@ package dev.jb0s.blockgameenhanced.gamefeature.mmostats;
 
 import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
 import dev.jb0s.blockgameenhanced.BlockgameEnhancedClient;
-import dev.jb0s.blockgameenhanced.event.chat.ReceiveChatMessageEvent;
+import dev.jb0s.blockgameenhanced.event.chat.ParsedChatMessage;
+import dev.jb0s.blockgameenhanced.event.chat.ReceiveChatMessageRouter;
+import dev.jb0s.blockgameenhanced.event.chat.ReceiveOverlayMessageEvent;
 import dev.jb0s.blockgameenhanced.event.gamefeature.mmostats.MMOStatsUpdatedEvent;
 import dev.jb0s.blockgameenhanced.gamefeature.GameFeature;
 import dev.jb0s.blockgameenhanced.gui.hud.immersive.ImmersiveIngameHud;
 import dev.jb0s.blockgameenhanced.config.modules.IngameHudConfig;
 import lombok.Getter;
 import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.Text;
 import net.minecraft.util.ActionResult;
 
 public class MMOStatsGameFeature extends GameFeature {
@@ -24,69 +27,95 @@ public class MMOStatsGameFeature extends GameFeature {
     @Getter
     private float hydration;
 
+    // Only ever touched on the network thread, along with the values it last passed on to the client thread
+    private final MMOStatsLineParser statsLineParser = new MMOStatsLineParser();
+    private int lastParsedHealth = -1;
+    private int lastParsedMaxHealth = -1;
+    private int lastParsedHunger = -1;
+    private float lastParsedHydration = -1;
+
     @Override
     public void init(MinecraftClient minecraftClient, BlockgameEnhancedClient blockgameClient) {
         super.init(minecraftClient, blockgameClient);
 
-        ReceiveChatMessageEvent.EVENT.register(this::extractStatsFromMessage);
-        ReceiveChatMessageEvent.EVENT.register(this::extractExpDataFromMessage);
+        ReceiveOverlayMessageEvent.EVENT.register(this::handleStatsLine);
+        ReceiveChatMessageRouter.registerPrefix("[EXP]", this::parseExpMessage, this::applyExpMessage);
     }
 
-    private ActionResult extractStatsFromMessage(MinecraftClient minecraftClient, String message) {
+    /**
+     * Handles the health, hunger and hydration line that the server sends to the action bar.
+     * Runs on the network thread. The line arrives many times a second and rarely changes,
+     * so it is scanned without allocating anything and only passed on to the client thread when a value has changed.
+     */
+    private ActionResult handleStatsLine(MinecraftClient minecraftClient, Text message) {
         if(!(minecraftClient.inGameHud instanceof ImmersiveIngameHud)) {
             return ActionResult.PASS;
         }
 
-        String[] split = message.split("\\|");
-        if(split.length != 3) {
+        if(!statsLineParser.parse(message)) {
             return ActionResult.PASS;
         }
 
-        String health = split[0].trim();
-        String hunger = split[1].trim();
-        String hydrate = split[2].trim();
+        int health = statsLineParser.getHealth();
+        int maxHealth = statsLineParser.getMaxHealth();
+        int hunger = statsLineParser.getHunger();
+        float hydration = statsLineParser.getHydration();
 
-        if(health.startsWith("❤") && hunger.startsWith("\uD83C\uDF56") && hydrate.startsWith("\uD83E\uDDEA")) {
-            String[] hpSet = health.substring(2).split("/");
-            String[] huSet = hunger.substring(3).split("/");
-            String[] hySet = hydrate.substring(3).split("/");
+        boolean hasChanged = health != lastParsedHealth || maxHealth != lastParsedMaxHealth || hunger != lastParsedHunger || hydration != lastParsedHydration;
+        if(hasChanged) {
+            lastParsedHealth = health;
+            lastParsedMaxHealth = maxHealth;
+            lastParsedHunger = hunger;
+            lastParsedHydration = hydration;
 
-            this.health = Integer.parseInt(hpSet[0]);
-            this.hunger = Integer.parseInt(huSet[0]);
-            maxHealth = Integer.parseInt(hpSet[1].trim());
-            hydration = Float.parseFloat(hySet[0]);
+            StatsMessage stats = new StatsMessage(health, maxHealth, hunger, hydration);
+            minecraftClient.execute(() -> applyStatsMessage(stats));
+        }
 
-            // Invoke event
-            MMOStatsUpdatedEvent.EVENT.invoker().mmoStatsUpdated(this);
+        // Surpress actionbar message or not depending on the circumstance
+        boolean shouldSuppress = BlockgameEnhanced.getConfig().getIngameHudConfig().enableCustomHud && !BlockgameEnhanced.getConfig().getIngameHudConfig().showAdvancedStats;
+        return shouldSuppress ? ActionResult.SUCCESS : ActionResult.PASS;
+    }
 
-            // Surpress actionbar message or not depending on the circumstance
-            boolean shouldSuppress = BlockgameEnhanced.getConfig().getIngameHudConfig().enableCustomHud && !BlockgameEnhanced.getConfig().getIngameHudConfig().showAdvancedStats;
-            return shouldSuppress ? ActionResult.SUCCESS : ActionResult.PASS;
-        }
+    private void applyStatsMessage(StatsMessage message) {
+        health = message.health();
+        maxHealth = message.maxHealth();
+        hunger = message.hunger();
+        hydration = message.hydration();
 
-        return ActionResult.PASS;
+        // Invoke event
+        MMOStatsUpdatedEvent.EVENT.invoker().mmoStatsUpdated(this);
     }
 
-    private ActionResult extractExpDataFromMessage(MinecraftClient minecraftClient, String message) {
+    /**
+     * Parses a profession experience message.
+     * Runs on the network thread.
+     */
+    private ExpMessage parseExpMessage(MinecraftClient minecraftClient, String message, Text text) {
         IngameHudConfig ighConfig = BlockgameEnhanced.getConfig().getIngameHudConfig();
 
         boolean isDisabled = !ighConfig.enableCustomHud || ighConfig.showProfessionExpInChat;
-        if(!message.startsWith("[EXP]") || isDisabled) {
-            return ActionResult.PASS;
+        if(isDisabled || !(minecraftClient.inGameHud instanceof ImmersiveIngameHud)) {
+            return null;
         }
 
-        if(minecraftClient.inGameHud instanceof ImmersiveIngameHud immersiveIngameHud) {
-            String data = message.substring(6);
-            String[] split = data.split(" - ");
-            String[] professionInfo = split[0].split(" ");
+        String data = message.substring(6);
+        String[] split = data.split(" - ");
+        String[] professionInfo = split[0].split(" ");
 
-            MMOProfession prof = MMOProfession.valueOf(professionInfo[0].trim().toUpperCase());
-            float gained = Float.parseFloat(professionInfo[1].substring(1));
+        MMOProfession prof = MMOProfession.valueOf(professionInfo[0].trim().toUpperCase());
+        float gained = Float.parseFloat(professionInfo[1].substring(1));
+        float progress = Float.parseFloat(split[1].replace("%", ""));
 
-            immersiveIngameHud.getImmersiveExpPopupContainer().showExpPopup(prof, Float.parseFloat(split[1].replace("%", "")), gained);
-            return ActionResult.SUCCESS;
-        }
+        return new ExpMessage(prof, progress, gained, true);
+    }
 
-        return ActionResult.PASS;
+    private void applyExpMessage(ExpMessage message) {
+        if(getMinecraftClient().inGameHud instanceof ImmersiveIngameHud immersiveIngameHud) {
+            immersiveIngameHud.getImmersiveExpPopupContainer().showExpPopup(message.profession(), message.progress(), message.gained());
+        }
     }
+
+    record StatsMessage(int health, int maxHealth, int hunger, float hydration) { }
+    record ExpMessage(MMOProfession profession, float progress, float gained, boolean suppress) implements ParsedChatMessage { }
 }
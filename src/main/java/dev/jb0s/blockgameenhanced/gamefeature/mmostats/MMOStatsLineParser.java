@@ -0,0 +1,210 @@
+package dev.jb0s.blockgameenhanced.gamefeature.mmostats;
+
+import lombok.Getter;
+import net.minecraft.text.StringVisitable;
+import net.minecraft.text.Text;
+import net.minecraft.util.Unit;
+
+import java.util.Optional;
+
+/**
+ * Parses the "❤ 20/20 | 🍖 20/20 | 🧪 20.0/20" stats line that the server keeps sending to the action bar.
+ * The text is scanned in place, one character at a time, straight out of the Text's segments.
+ * Nothing is allocated while parsing, so an instance should be reused for every line.
+ * Instances are not thread-safe.
+ */
+public class MMOStatsLineParser {
+    // Each section starts with its own marker, the hunger and hydration ones are surrogate pairs
+    private static final String[] MARKERS = { "❤", "🍖", "🧪" };
+    private static final Optional<Unit> STOP = Optional.of(Unit.INSTANCE);
+
+    // A float can't tell apart fractions that differ past the ninth digit, so later digits are skipped
+    private static final long MAX_FRACTION_SCALE = 1_000_000_000L;
+
+    private static final int EXPECT_MARKER = 0;
+    private static final int IN_MARKER = 1;
+    private static final int EXPECT_VALUE = 2;
+    private static final int IN_VALUE = 3;
+    private static final int EXPECT_MAX = 4;
+    private static final int IN_MAX = 5;
+    private static final int AFTER_MAX = 6;
+    private static final int FAILED = 7;
+
+    private final StringVisitable.Visitor<Unit> visitor = this::accept;
+
+    private int state;
+    private int section;
+    private int markerIndex;
+    private long integerPart;
+    private long fractionPart;
+    private long fractionScale;
+    private boolean hasDigits;
+
+    @Getter
+    private int health;
+
+    @Getter
+    private int maxHealth;
+
+    @Getter
+    private int hunger;
+
+    @Getter
+    private float hydration;
+
+    /**
+     * Parses a stats line. On success, the parsed values can be read through the getters.
+     * @param text The action bar text.
+     * @return Whether the text was a complete, well-formed stats line.
+     */
+    public boolean parse(Text text) {
+        state = EXPECT_MARKER;
+        section = 0;
+        markerIndex = 0;
+
+        text.visit(visitor);
+
+        // The line usually ends right after the last number
+        if(state == IN_MAX) {
+            state = storeMax() ? AFTER_MAX : FAILED;
+        }
+
+        return state == AFTER_MAX && section == MARKERS.length - 1;
+    }
+
+    private Optional<Unit> accept(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            state = next(segment.charAt(i));
+            if(state == FAILED) {
+                return STOP;
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Advances the parser by a single character.
+     * @param c The character to consume.
+     * @return The state after consuming c.
+     */
+    private int next(char c) {
+        boolean isWhitespace = Character.isWhitespace(c);
+
+        switch (state) {
+            case EXPECT_MARKER -> {
+                if(isWhitespace) return EXPECT_MARKER;
+                markerIndex = 0;
+                return consumeMarker(c);
+            }
+            case IN_MARKER -> {
+                return consumeMarker(c);
+            }
+            case EXPECT_VALUE, EXPECT_MAX -> {
+                if(isWhitespace) return state;
+                beginNumber();
+                return consumeNumber(c, state == EXPECT_VALUE ? IN_VALUE : IN_MAX);
+            }
+            case IN_VALUE -> {
+                if(c == '/') {
+                    return storeValue() ? EXPECT_MAX : FAILED;
+                }
+                return consumeNumber(c, IN_VALUE);
+            }
+            case IN_MAX -> {
+                if(isWhitespace || c == '|') {
+                    if(!storeMax()) return FAILED;
+                    return c == '|' ? nextSection() : AFTER_MAX;
+                }
+                return consumeNumber(c, IN_MAX);
+            }
+            case AFTER_MAX -> {
+                if(isWhitespace) return AFTER_MAX;
+                return c == '|' ? nextSection() : FAILED;
+            }
+        }
+
+        return FAILED;
+    }
+
+    private int consumeMarker(char c) {
+        String marker = MARKERS[section];
+        if(marker.charAt(markerIndex) != c) {
+            return FAILED;
+        }
+
+        markerIndex++;
+        return markerIndex == marker.length() ? EXPECT_VALUE : IN_MARKER;
+    }
+
+    private int nextSection() {
+        section++;
+        return section < MARKERS.length ? EXPECT_MARKER : FAILED;
+    }
+
+    private void beginNumber() {
+        integerPart = 0;
+        fractionPart = 0;
+        fractionScale = 0;
+        hasDigits = false;
+    }
+
+    private int consumeNumber(char c, int inState) {
+        if(c >= '0' && c <= '9') {
+            // Way more digits than any stat will ever have, don't let it overflow
+            if(integerPart > Integer.MAX_VALUE) return FAILED;
+
+            if(fractionScale == 0) {
+                integerPart = integerPart * 10 + (c - '0');
+            }
+            else if(fractionScale < MAX_FRACTION_SCALE) {
+                fractionPart = fractionPart * 10 + (c - '0');
+                fractionScale *= 10;
+            }
+
+            hasDigits = true;
+            return inState;
+        }
+
+        if(c == '.' && fractionScale == 0 && hasDigits) {
+            fractionScale = 1;
+            return inState;
+        }
+
+        return FAILED;
+    }
+
+    private boolean isWholeNumber() {
+        return hasDigits && fractionScale == 0;
+    }
+
+    private boolean storeValue() {
+        switch (section) {
+            case 0 -> {
+                if(!isWholeNumber()) return false;
+                health = (int) integerPart;
+            }
+            case 1 -> {
+                if(!isWholeNumber()) return false;
+                hunger = (int) integerPart;
+            }
+            case 2 -> {
+                if(!hasDigits || fractionScale == 1) return false;
+                hydration = fractionScale == 0 ? integerPart : (float) (integerPart + (double) fractionPart / fractionScale);
+            }
+        }
+
+        return true;
+    }
+
+    private boolean storeMax() {
+        // Only the max health is of interest, the other maximums are fixed
+        if(section == 0) {
+            if(!isWholeNumber()) return false;
+            maxHealth = (int) integerPart;
+            return true;
+        }
+
+        return hasDigits && fractionScale != 1;
+    }
+}
@@ -2,7 +2,9 @@ package dev.jb0s.blockgameenhanced.gamefeature.party;
 
 import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
 import dev.jb0s.blockgameenhanced.BlockgameEnhancedClient;
-import dev.jb0s.blockgameenhanced.event.chat.ReceiveChatMessageEvent;
+import dev.jb0s.blockgameenhanced.event.chat.ChatMessageParser;
+import dev.jb0s.blockgameenhanced.event.chat.ParsedChatMessage;
+import dev.jb0s.blockgameenhanced.event.chat.ReceiveChatMessageRouter;
 import dev.jb0s.blockgameenhanced.event.entity.otherplayer.OtherPlayerTickEvent;
 import dev.jb0s.blockgameenhanced.event.entity.player.PlayerTickEvent;
 import dev.jb0s.blockgameenhanced.event.gamefeature.hotkey.PingHotkeyPressedEvent;
@@ -13,7 +15,6 @@ import dev.jb0s.blockgameenhanced.event.screen.ScreenReceivedInventoryEvent;
 import dev.jb0s.blockgameenhanced.gamefeature.GameFeature;
 import dev.jb0s.blockgameenhanced.helper.DebugHelper;
 import dev.jb0s.blockgameenhanced.helper.MathHelper;
-import dev.jb0s.blockgameenhanced.helper.TimeHelper;
 import lombok.Getter;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
@@ -49,10 +50,11 @@ import java.util.regex.Pattern;
 public class PartyGameFeature extends GameFeature {
     private static final String PARTY_LIST_SCREEN_NAME = "Party";
     private static final SoundEvent PARTY_MEMBER_DEATH_SOUND = SoundEvent.of(new Identifier("blockgame", "mus.gui.combat.death"));
-    private static final String JOINED_PARTY_MESSAGE_REGEX = "(.*) joined your party!";
-    private static final String LEFT_PARTY_MESSAGE_REGEX = "(.*) has left the party.";
-    private static final String LEFT_GAME_MESSAGE_REGEX = "(.*) left the game";
-    private static final String YOU_LEFT_PARTY_MESSAGE_REGEX = "You left (.*) party.";
+    private static final String PARTY_CHAT_PREFIX = "[Party] ";
+    private static final Pattern JOINED_PARTY_MESSAGE_PATTERN = Pattern.compile("(.*) joined your party!");
+    private static final Pattern LEFT_PARTY_MESSAGE_PATTERN = Pattern.compile("(.*) has left the party.");
+    private static final Pattern LEFT_GAME_MESSAGE_PATTERN = Pattern.compile("(.*) left the game");
+    private static final Pattern YOU_LEFT_PARTY_MESSAGE_PATTERN = Pattern.compile("You left (.*) party.");
 
     @Getter
     private ArrayList<PartyMember> partyMembers;
@@ -68,7 +70,13 @@ public class PartyGameFeature extends GameFeature {
         super.init(minecraftClient, blockgameClient);
 
         // Subscribe to events
-        ReceiveChatMessageEvent.EVENT.register(((client1, message) -> handleChatMessage(message)));
+        // Only party related messages are routed to us, see parseChatMessage for what we do with them
+        ChatMessageParser<ParsedChatMessage> chatParser = this::parseChatMessage;
+        ReceiveChatMessageRouter.registerPrefix(PARTY_CHAT_PREFIX, chatParser, this::handleChatMessage);
+        ReceiveChatMessageRouter.registerPrefix("You left ", chatParser, this::handleChatMessage);
+        ReceiveChatMessageRouter.registerSuffix(" joined your party!", chatParser, this::handleChatMessage);
+        ReceiveChatMessageRouter.registerSuffix(" has left the party.", chatParser, this::handleChatMessage);
+        ReceiveChatMessageRouter.registerSuffix(" left the game", chatParser, this::handleChatMessage);
         OtherPlayerTickEvent.EVENT.register(((client1, otherPlayer) -> handlePlayerHealth(otherPlayer, (int)otherPlayer.getHealth(), (int)otherPlayer.getMaxHealth(), otherPlayer.isAlive())));
         PlayerTickEvent.EVENT.register(((client1, player) -> handlePlayerHealth(player, (int)player.getHealth(), (int)player.getMaxHealth(), player.isAlive())));
         WorldRenderEvents.END.register(ctx -> preRenderPings(ctx.matrixStack(), ctx.projectionMatrix(), ctx.tickDelta()));
@@ -321,7 +329,7 @@ public class PartyGameFeature extends GameFeature {
         // Update PartyMember stats
         member.setHealth(health);
         member.setMaxHealth(maxHealth);
-        member.setLastUpdateSecond(TimeHelper.getSystemTimeUnix());
+        member.setLastUpdateTick(BlockgameEnhancedClient.getServerClock().getCurrentTick());
 
         // Set entity glowing flag if unset
         if(!player.getFlag(2)) {
@@ -345,90 +353,118 @@ public class PartyGameFeature extends GameFeature {
     }
 
     /**
-     * Handle the player receiving a chat message.
-     * This event is used to determine whether we should query the server for party info.
+     * Parses a party related chat message. Runs on the network thread, so this must not touch any party state.
+     * @param client The Minecraft client.
      * @param message The chat message that was sent.
+     * @param text The chat message with its formatting.
+     * @return The parsed message, null if it's not something we're interested in.
      */
-    public ActionResult handleChatMessage(String message) {
-        Pattern joinedPattern = Pattern.compile(JOINED_PARTY_MESSAGE_REGEX);
-        Pattern leftPattern = Pattern.compile(LEFT_PARTY_MESSAGE_REGEX);
-        Pattern leftGamePattern = Pattern.compile(LEFT_GAME_MESSAGE_REGEX);
-        Pattern youLeftPattern = Pattern.compile(YOU_LEFT_PARTY_MESSAGE_REGEX);
-        Matcher joinedMatcher = joinedPattern.matcher(message);
-        Matcher leftMatcher = leftPattern.matcher(message);
-        Matcher leftGameMatcher = leftGamePattern.matcher(message);
-        Matcher youLeftMatcher = youLeftPattern.matcher(message);
-
+    private ParsedChatMessage parseChatMessage(MinecraftClient client, String message, Text text) {
         // Check for chat notifications
+        Matcher joinedMatcher = JOINED_PARTY_MESSAGE_PATTERN.matcher(message);
         if(joinedMatcher.matches()) {
-            String playerName = joinedMatcher.group(1);
-            PlayerListEntry ple = getMinecraftClient().getNetworkHandler().getPlayerListEntry(playerName);
-            handlePlayerJoinedParty(ple);
-            return ActionResult.PASS;
+            return new JoinedPartyMessage(joinedMatcher.group(1), false);
         }
-        if(leftMatcher.matches() || leftGameMatcher.matches()) {
-            String playerName = (leftMatcher.matches() ? leftMatcher : leftGameMatcher).group(1);
-            PartyMember member = getPartyMember(playerName);
-            if(member != null) {
-                handlePlayerExitedParty(member);
-            }
 
-            return ActionResult.PASS;
+        Matcher leftMatcher = LEFT_PARTY_MESSAGE_PATTERN.matcher(message);
+        if(leftMatcher.matches()) {
+            return new LeftPartyMessage(leftMatcher.group(1), false);
         }
-        if(youLeftMatcher.matches()) {
-            String leaderName = youLeftMatcher.group(1);
-            handleSelfLeftParty(leaderName);
 
-            return ActionResult.PASS;
+        Matcher leftGameMatcher = LEFT_GAME_MESSAGE_PATTERN.matcher(message);
+        if(leftGameMatcher.matches()) {
+            return new LeftPartyMessage(leftGameMatcher.group(1), false);
+        }
+
+        Matcher youLeftMatcher = YOU_LEFT_PARTY_MESSAGE_PATTERN.matcher(message);
+        if(youLeftMatcher.matches()) {
+            return new SelfLeftPartyMessage(youLeftMatcher.group(1), false);
         }
 
         // Check for pings
-        if(message.startsWith("[Party] ") && getMinecraftClient().world != null) {
+        if(message.startsWith(PARTY_CHAT_PREFIX) && client.world != null) {
             String[] args = message.split(" ~ ");
-            if(args.length < 2) return ActionResult.PASS;
+            if(args.length < 2) return null;
 
             if(args[1].equals("Ping")) {
-                if(args.length < 3) return ActionResult.PASS;
+                if(args.length < 3) return null;
                 String pmb = args[0].substring(8, args[0].indexOf(":"));
                 String[] loc = args[2].substring(1, args[2].length() - 1).split(", ");
                 Vec3d pos = new Vec3d(Double.parseDouble(loc[0]), Double.parseDouble(loc[1]), Double.parseDouble(loc[2]));
-                String wld = args[3];
-
-                // Store ping data
-                PartyMember partyMember = getPartyMember(pmb);
-                if(partyPings.containsKey(partyMember)) {
-                    PartyPing ping = partyPings.get(partyMember);
-                    ping.setLocation(pos);
-                    ping.setWorld(wld);
-                }
-                else {
-                    PartyPing ping = new PartyPing(partyMember, pos, wld);
-                    partyPings.put(partyMember, ping);
-                }
-
-                // Play sound indicating new ping data if worlds match
-                boolean markerWorldMatchesPlayer = partyPings.get(partyMember).getWorld().equals(getMinecraftClient().world.getRegistryKey().getValue().getPath());
-                boolean configAllowsMarkerSound = BlockgameEnhanced.getConfig().getPartyHudConfig().markNotify;
-                ClientPlayerEntity clientPlayerEntity = getMinecraftClient().player;
-                if(markerWorldMatchesPlayer && configAllowsMarkerSound && clientPlayerEntity != null) {
-                    Vec3d clampedPos = MathHelper.clampMagnitude(pos.subtract(clientPlayerEntity.getPos()), 0.0, 5.0).add(clientPlayerEntity.getPos());
-                    getMinecraftClient().world.playSound(clampedPos.x, clampedPos.y, clampedPos.z, SoundEvents.ENTITY_EXPERIENCE_ORB_PICKUP, SoundCategory.PLAYERS, 0.65f, 0.75f, false);
-                }
-
-                PartyPingEvent.EVENT.invoker().partyPingEvent(this);
-                return ActionResult.SUCCESS;
+                return new PingMessage(pmb, pos, args[3], true);
             }
 
             if(args[1].equals("Unping")) {
                 String pmb = args[0].substring(8, args[0].indexOf(":"));
-                PartyMember partyMember = getPartyMember(pmb);
-                partyPings.remove(partyMember);
-                PartyPingEvent.EVENT.invoker().partyPingEvent(this);
-                return ActionResult.SUCCESS;
+                return new UnpingMessage(pmb, true);
             }
         }
 
-        return ActionResult.PASS;
+        return null;
+    }
+
+    /**
+     * Handle the player receiving a party related chat message.
+     * This event is used to determine whether we should query the server for party info.
+     * @param message The parsed chat message.
+     */
+    private void handleChatMessage(ParsedChatMessage message) {
+        if(message instanceof JoinedPartyMessage joined) {
+            PlayerListEntry ple = getMinecraftClient().getNetworkHandler().getPlayerListEntry(joined.playerName());
+            handlePlayerJoinedParty(ple);
+        }
+        else if(message instanceof LeftPartyMessage left) {
+            PartyMember member = getPartyMember(left.playerName());
+            if(member != null) {
+                handlePlayerExitedParty(member);
+            }
+        }
+        else if(message instanceof SelfLeftPartyMessage selfLeft) {
+            handleSelfLeftParty(selfLeft.leaderName());
+        }
+        else if(message instanceof PingMessage ping) {
+            handlePing(ping.playerName(), ping.location(), ping.world());
+        }
+        else if(message instanceof UnpingMessage unping) {
+            if(partyPings == null) return;
+
+            PartyMember partyMember = getPartyMember(unping.playerName());
+            partyPings.remove(partyMember);
+            PartyPingEvent.EVENT.invoker().partyPingEvent(this);
+        }
+    }
+
+    /**
+     * Stores a ping that a party member has placed.
+     * @param playerName The name of the party member that placed the ping.
+     * @param pos The location of the ping.
+     * @param wld The dimension that the ping is in.
+     */
+    private void handlePing(String playerName, Vec3d pos, String wld) {
+        if(partyPings == null || getMinecraftClient().world == null) return;
+
+        // Store ping data
+        PartyMember partyMember = getPartyMember(playerName);
+        if(partyPings.containsKey(partyMember)) {
+            PartyPing ping = partyPings.get(partyMember);
+            ping.setLocation(pos);
+            ping.setWorld(wld);
+        }
+        else {
+            PartyPing ping = new PartyPing(partyMember, pos, wld);
+            partyPings.put(partyMember, ping);
+        }
+
+        // Play sound indicating new ping data if worlds match
+        boolean markerWorldMatchesPlayer = partyPings.get(partyMember).getWorld().equals(getMinecraftClient().world.getRegistryKey().getValue().getPath());
+        boolean configAllowsMarkerSound = BlockgameEnhanced.getConfig().getPartyHudConfig().markNotify;
+        ClientPlayerEntity clientPlayerEntity = getMinecraftClient().player;
+        if(markerWorldMatchesPlayer && configAllowsMarkerSound && clientPlayerEntity != null) {
+            Vec3d clampedPos = MathHelper.clampMagnitude(pos.subtract(clientPlayerEntity.getPos()), 0.0, 5.0).add(clientPlayerEntity.getPos());
+            getMinecraftClient().world.playSound(clampedPos.x, clampedPos.y, clampedPos.z, SoundEvents.ENTITY_EXPERIENCE_ORB_PICKUP, SoundCategory.PLAYERS, 0.65f, 0.75f, false);
+        }
+
+        PartyPingEvent.EVENT.invoker().partyPingEvent(this);
     }
 
     /**
@@ -504,4 +540,10 @@ public class PartyGameFeature extends GameFeature {
     public boolean isPlayerInParty(AbstractClientPlayerEntity player) {
         return isPlayerInParty(player.getGameProfile().getName());
     }
+
+    record JoinedPartyMessage(String playerName, boolean suppress) implements ParsedChatMessage { }
+    record LeftPartyMessage(String playerName, boolean suppress) implements ParsedChatMessage { }
+    record SelfLeftPartyMessage(String leaderName, boolean suppress) implements ParsedChatMessage { }
+    record PingMessage(String playerName, Vec3d location, String world, boolean suppress) implements ParsedChatMessage { }
+    record UnpingMessage(String playerName, boolean suppress) implements ParsedChatMessage { }
 }
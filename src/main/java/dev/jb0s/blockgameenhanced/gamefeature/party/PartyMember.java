@@ -21,7 +21,7 @@ public class PartyMember {
 
     @Getter
     @Setter
-    private long lastUpdateSecond;
+    private long lastUpdateTick;
 
     @Getter
     @Setter
@@ -0,0 +1,128 @@
+package dev.jb0s.blockgameenhanced.gamefeature.servertime;
+
+import lombok.Getter;
+import net.minecraft.util.Util;
+
+/**
+ * Monotonic clock that counts server ticks rather than client ticks, so that timers keep pace with the server when
+ * it lags instead of running ahead of it.
+ * The clock is anchored to the world time the server sends us every 20 ticks, and extrapolated in between using the
+ * measured tick rate. If the server stops sending updates altogether, the clock stops shortly after.
+ * The value has no meaning by itself, it only goes up and is only meant to be compared with earlier readings.
+ */
+public class ServerClock {
+    public static final double NOMINAL_TPS = 20.0;
+
+    /**
+     * Smoothing gain for TPS samples.
+     */
+    private static final double TPS_GAIN = 0.25;
+
+    /**
+     * Shortest time span (in ms) a TPS sample is measured over. Updates that arrive in bursts would otherwise read as absurd tick rates.
+     */
+    private static final long MIN_TPS_SAMPLE_MS = 900;
+
+    /**
+     * How far (in ticks) the clock runs on past the last world time update before it waits for the next one.
+     */
+    private static final double MAX_EXTRAPOLATION_TICKS = 40.0;
+
+    /**
+     * A jump in world time larger than this (in ticks) means we changed server or world, rather than the server catching up.
+     */
+    private static final long MAX_PLAUSIBLE_JUMP_TICKS = 200;
+
+    @Getter
+    private double tps = NOMINAL_TPS;
+
+    private boolean anchored;
+    private long anchorWorldTime;
+    private long anchorMs = Util.getMeasuringTimeMs();
+    private double anchorTicks;
+
+    private long tpsBaseWorldTime;
+    private long tpsBaseMs;
+
+    // Value of the clock at the last client tick, and the highest value ever handed out
+    private double sampledTicks;
+    private double lastReturnedTicks;
+
+    /**
+     * Feeds a world time update from the server into the clock.
+     * @param worldTime Age of the world in server ticks.
+     * @param receivedMs Util.getMeasuringTimeMs() at the time the update arrived.
+     */
+    public void onWorldTimeUpdate(long worldTime, long receivedMs) {
+        long elapsedWorldTime = worldTime - anchorWorldTime;
+        boolean isContinuous = anchored && elapsedWorldTime >= 0 && elapsedWorldTime <= MAX_PLAUSIBLE_JUMP_TICKS + estimateElapsedTicks(receivedMs);
+
+        if(!isContinuous) {
+            // First update, or a different world. Carry on from where the clock is now, and measure TPS from scratch.
+            anchorTicks = Math.max(estimateAt(receivedMs), lastReturnedTicks);
+            tpsBaseWorldTime = worldTime;
+            tpsBaseMs = receivedMs;
+        }
+        else {
+            anchorTicks += elapsedWorldTime;
+
+            long tpsSpanMs = receivedMs - tpsBaseMs;
+            if(tpsSpanMs >= MIN_TPS_SAMPLE_MS) {
+                double sample = (worldTime - tpsBaseWorldTime) * 1000.0 / tpsSpanMs;
+                tps += TPS_GAIN * (Math.min(sample, NOMINAL_TPS) - tps);
+                tpsBaseWorldTime = worldTime;
+                tpsBaseMs = receivedMs;
+            }
+        }
+
+        anchored = true;
+        anchorWorldTime = worldTime;
+        anchorMs = receivedMs;
+    }
+
+    /**
+     * Samples the clock. Call once every client tick, readings in between are extrapolated from this sample.
+     */
+    public void tick() {
+        sampledTicks = Math.max(sampledTicks, estimateAt(Util.getMeasuringTimeMs()));
+    }
+
+    /**
+     * Reads the clock. Returns the same value for the same tickDelta within a frame, so every element drawn in a frame agrees.
+     * @param tickDelta Progress into the current client tick.
+     * @return Server ticks counted by this clock.
+     */
+    public double getTicks(float tickDelta) {
+        double ticks = Math.max(lastReturnedTicks, sampledTicks + tickDelta * (tps / NOMINAL_TPS));
+        lastReturnedTicks = ticks;
+        return ticks;
+    }
+
+    /**
+     * @return The whole server tick that the clock was at during the last client tick.
+     */
+    public int getCurrentTick() {
+        return (int) Math.floor(sampledTicks);
+    }
+
+    /**
+     * Forgets the server we were anchored to, e.g. on disconnect. The clock itself carries on from where it is.
+     */
+    public void reset() {
+        anchorTicks = Math.max(estimateAt(Util.getMeasuringTimeMs()), lastReturnedTicks);
+        anchorMs = Util.getMeasuringTimeMs();
+        anchored = false;
+        tps = NOMINAL_TPS;
+    }
+
+    private double estimateAt(long nowMs) {
+        return anchorTicks + estimateElapsedTicks(nowMs);
+    }
+
+    private double estimateElapsedTicks(long nowMs) {
+        double elapsed = Math.max(0, nowMs - anchorMs) * tps / 1000.0;
+
+        // Without a server to follow we run at the nominal rate, and with one we never run far ahead of it
+        return anchored ? Math.min(elapsed, MAX_EXTRAPOLATION_TICKS) : elapsed;
+    }
+}
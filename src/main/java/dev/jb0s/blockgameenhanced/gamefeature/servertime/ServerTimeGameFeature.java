@@ -0,0 +1,31 @@
+package dev.jb0s.blockgameenhanced.gamefeature.servertime;
+
+import dev.jb0s.blockgameenhanced.BlockgameEnhancedClient;
+import dev.jb0s.blockgameenhanced.event.network.WorldTimeUpdateEvent;
+import dev.jb0s.blockgameenhanced.gamefeature.GameFeature;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.minecraft.client.MinecraftClient;
+
+public class ServerTimeGameFeature extends GameFeature {
+    @Override
+    public void init(MinecraftClient minecraftClient, BlockgameEnhancedClient blockgameClient) {
+        super.init(minecraftClient, blockgameClient);
+
+        WorldTimeUpdateEvent.EVENT.register(this::handleWorldTimeUpdate);
+        ClientPlayConnectionEvents.DISCONNECT.register((x, y) -> getMinecraftClient().execute(BlockgameEnhancedClient.getServerClock()::reset));
+    }
+
+    @Override
+    public void tick() {
+        BlockgameEnhancedClient.getServerClock().tick();
+    }
+
+    /**
+     * Feeds a world time update into the server clock. Runs on the network thread, the arrival time is taken there.
+     * @param worldTime Age of the world in server ticks.
+     * @param receivedMs Util.getMeasuringTimeMs() at the time the packet arrived.
+     */
+    private void handleWorldTimeUpdate(long worldTime, long receivedMs) {
+        getMinecraftClient().execute(() -> BlockgameEnhancedClient.getServerClock().onWorldTimeUpdate(worldTime, receivedMs));
+    }
+}
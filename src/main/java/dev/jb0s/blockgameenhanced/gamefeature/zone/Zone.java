@@ -1,6 +1,9 @@
 package dev.jb0s.blockgameenhanced.gamefeature.zone;
 
 import lombok.Getter;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.Arrays;
 
 public class Zone {
     @Getter
@@ -21,12 +24,61 @@ public class Zone {
     @Getter
     private String music;
 
-    @Getter
     private int[][] chunks;
 
+    /**
+     * Chunk positions packed with ChunkPos.toLong. Zones loaded from the binary data table only carry these.
+     */
+    private transient long[] packedChunks;
+
     @Getter
     public int minY;
 
     @Getter
     public int maxY;
+
+    public Zone() {
+    }
+
+    public Zone(String id, String world, String musicType, boolean adventure, ZoneBoss battle, String music, long[] packedChunks, int minY, int maxY) {
+        this.id = id;
+        this.world = world;
+        this.musicType = musicType;
+        this.adventure = adventure;
+        this.battle = battle;
+        this.music = music;
+        this.packedChunks = packedChunks;
+        this.minY = minY;
+        this.maxY = maxY;
+    }
+
+    public int[][] getChunks() {
+        if(chunks == null && packedChunks != null) {
+            chunks = new int[packedChunks.length][];
+            for (int i = 0; i < packedChunks.length; i++) {
+                chunks[i] = new int[] { ChunkPos.getPackedX(packedChunks[i]), ChunkPos.getPackedZ(packedChunks[i]) };
+            }
+        }
+
+        return chunks;
+    }
+
+    public long[] getPackedChunks() {
+        if(packedChunks == null && chunks != null) {
+            long[] packed = new long[chunks.length];
+            int count = 0;
+
+            for (int[] chunk : chunks) {
+                if(chunk == null || chunk.length < 2) {
+                    continue;
+                }
+
+                packed[count++] = ChunkPos.toLong(chunk[0], chunk[1]);
+            }
+
+            packedChunks = count == packed.length ? packed : Arrays.copyOf(packed, count);
+        }
+
+        return packedChunks;
+    }
 }
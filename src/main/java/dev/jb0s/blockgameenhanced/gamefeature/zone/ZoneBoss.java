@@ -11,4 +11,13 @@ public class ZoneBoss {
 
     @Getter
     private int victoryDelay;
+
+    public ZoneBoss() {
+    }
+
+    public ZoneBoss(String boss, String music, int victoryDelay) {
+        this.boss = boss;
+        this.music = music;
+        this.victoryDelay = victoryDelay;
+    }
 }
@@ -0,0 +1,61 @@
+package dev.jb0s.blockgameenhanced.gamefeature.zone;
+
+import lombok.Getter;
+
+/**
+ * All zones that claim a single chunk, stacked by their Y ranges.
+ * Zones are kept in the order they appear in adventure_zones.json, so overlapping zones resolve the same way they always have.
+ */
+public class ZoneColumn {
+    @Getter
+    private final Zone[] zones;
+
+    public ZoneColumn(Zone[] zones) {
+        this.zones = zones;
+    }
+
+    /**
+     * Finds the zone that covers the provided height in this column.
+     * @param y Y-Position to look up.
+     * @return The first zone whose height range contains y, null if none do.
+     */
+    public Zone find(double y) {
+        for (Zone zone : zones) {
+            if(y >= zone.getMinY() && y < zone.getMaxY()) {
+                return zone;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the lowest height at which {@link #find(double)} still returns the same zone as it does for y.
+     * @param y Y-Position to measure from.
+     * @return The bottom of the height band containing y (inclusive).
+     */
+    public double getBandMin(double y) {
+        double min = Double.NEGATIVE_INFINITY;
+        for (Zone zone : zones) {
+            if(zone.getMinY() <= y) min = Math.max(min, zone.getMinY());
+            if(zone.getMaxY() <= y) min = Math.max(min, zone.getMaxY());
+        }
+
+        return min;
+    }
+
+    /**
+     * Gets the height at which {@link #find(double)} may start returning a different zone than it does for y.
+     * @param y Y-Position to measure from.
+     * @return The top of the height band containing y (exclusive).
+     */
+    public double getBandMax(double y) {
+        double max = Double.POSITIVE_INFINITY;
+        for (Zone zone : zones) {
+            if(zone.getMinY() > y) max = Math.min(max, zone.getMinY());
+            if(zone.getMaxY() > y) max = Math.min(max, zone.getMaxY());
+        }
+
+        return max;
+    }
+}
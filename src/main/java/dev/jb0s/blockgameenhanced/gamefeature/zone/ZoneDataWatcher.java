@@ -0,0 +1,107 @@
+package dev.jb0s.blockgameenhanced.gamefeature.zone;
+
+import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Watches a single file on a background thread and runs a callback on that same thread whenever it changes.
+ * The callback is free to do heavy work (parsing, building indexes), it never runs on the client thread.
+ */
+public class ZoneDataWatcher {
+    /**
+     * Editors often save a file in several steps (truncate, write, rename), so wait for things to settle before reloading.
+     */
+    private static final long SETTLE_DELAY_MS = 250;
+
+    private final Path file;
+    private final Runnable onChanged;
+    private WatchService watchService;
+
+    public ZoneDataWatcher(Path file, Runnable onChanged) {
+        this.file = file;
+        this.onChanged = onChanged;
+    }
+
+    /**
+     * Starts watching the file. Failing to start is not fatal, the file just won't be hot-reloaded.
+     */
+    public void start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        }
+        catch (IOException e) {
+            BlockgameEnhanced.LOGGER.error("Failed to watch {} for changes: {}", file, e.getMessage());
+            return;
+        }
+
+        Thread thread = new Thread(this::run, "Zone Data Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the file. The watcher thread exits on its own shortly after.
+     */
+    public void stop() {
+        try {
+            if(watchService != null) {
+                watchService.close();
+            }
+        }
+        catch (IOException e) {
+            BlockgameEnhanced.LOGGER.error("Failed to stop watching {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = containsOurFile(key);
+                key.reset();
+
+                if(!changed) {
+                    continue;
+                }
+
+                // Swallow the rest of this save before reloading
+                Thread.sleep(SETTLE_DELAY_MS);
+                WatchKey pending;
+                while ((pending = watchService.poll()) != null) {
+                    pending.pollEvents();
+                    pending.reset();
+                }
+
+                try {
+                    onChanged.run();
+                }
+                catch (Exception e) {
+                    BlockgameEnhanced.LOGGER.error("Failed to reload {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watcher was stopped
+        }
+    }
+
+    private boolean containsOurFile(WatchKey key) {
+        boolean found = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if(event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                found = true;
+            }
+        }
+
+        return found;
+    }
+}
@@ -4,41 +4,105 @@ import com.google.gson.Gson;
 import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
 import dev.jb0s.blockgameenhanced.BlockgameEnhancedClient;
 import dev.jb0s.blockgameenhanced.event.adventurezone.EnteredWildernessEvent;
+import dev.jb0s.blockgameenhanced.event.adventurezone.PlayerApproachingZoneEvent;
 import dev.jb0s.blockgameenhanced.event.adventurezone.PlayerEnteredZoneEvent;
 import dev.jb0s.blockgameenhanced.event.adventurezone.PlayerExitedZoneEvent;
 import dev.jb0s.blockgameenhanced.gamefeature.GameFeature;
+import dev.jb0s.blockgameenhanced.helper.PathHelper;
 import lombok.Getter;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.client.network.ClientPlayerInteractionManager;
 import net.minecraft.client.toast.SystemToast;
 import net.minecraft.text.Text;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.GameMode;
 import net.minecraft.world.World;
 
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class ZoneGameFeature extends GameFeature {
     private static final String DATA_RESOURCE_PATH = "assets/blockgame/data/config/adventure_zones.json";
+    private static final String COMPILED_DATA_RESOURCE_PATH = "assets/blockgame/data/config/adventure_zones.bin";
 
-    private int lastCheckedChunkX;
-    private int lastCheckedChunkZ;
-    private Zone lastCheckedChunkResult;
+    /**
+     * Name of the optional zone table in the blockgame config folder. If present, it replaces the bundled zone data and is reloaded whenever it changes.
+     */
+    private static final String OVERRIDE_FILE_NAME = "adventure_zones.json";
+
+    /**
+     * Furthest distance (in chunks) that we measure to the nearest zone boundary.
+     * Past this, the player is simply re-checked once they have walked this far.
+     */
+    private static final int MAX_SAFE_RADIUS = 8;
+
+    /**
+     * How far ahead (in ticks) we look along the player's velocity to predict which zone they're about to enter.
+     */
+    private static final int PREDICTION_LOOKAHEAD_TICKS = 60;
+
+    /**
+     * Distance (in blocks) between the points we sample along the predicted path.
+     */
+    private static final double PREDICTION_SAMPLE_DISTANCE = 4.0;
 
     @Getter
     private Zone currentZone;
 
+    /**
+     * The zone table currently in use. Only ever replaced as a whole, so readers always see a zone list and its matching index.
+     */
+    private volatile ZoneData zoneData;
+
+    private ZoneDataWatcher overrideWatcher;
+
+    // The zone table that currentZone and predictedZone were taken from
+    private ZoneData trackedData;
+
+    // Region around the last zone check in which the result cannot change
+    private ZoneData safeData;
+    private World safeWorld;
+    private int safeMinChunkX;
+    private int safeMaxChunkX;
+    private int safeMinChunkZ;
+    private int safeMaxChunkZ;
+    private double safeMinY;
+    private double safeMaxY;
+
+    // Zone the player is predicted to enter next, null if we're not expecting a transition
+    private Zone predictedZone;
+
+    /**
+     * Amount of zone entries that were predicted correctly.
+     */
+    @Getter
+    private int predictionHits;
+
+    /**
+     * Amount of zone entries that were either not predicted, or predicted as a different zone.
+     */
     @Getter
-    private ZoneList zones;
+    private int predictionMisses;
 
     @Override
     public void init(MinecraftClient minecraftClient, BlockgameEnhancedClient blockgameClient) {
         super.init(minecraftClient, blockgameClient);
-        loadZoneData();
+        zoneData = loadZoneData();
+
+        // Reload the zone table off-thread whenever the override file changes
+        overrideWatcher = new ZoneDataWatcher(getOverridePath(), () -> zoneData = loadZoneData());
+        overrideWatcher.start();
+        ClientLifecycleEvents.CLIENT_STOPPING.register(client -> overrideWatcher.stop());
     }
 
     @Override
@@ -51,7 +115,25 @@ public class ZoneGameFeature extends GameFeature {
 
         ClientPlayerEntity player = client.player;
         ChunkPos playerChunkPos = player.getChunkPos();
-        Zone foundZone = findZoneInChunk(player.getWorld(), playerChunkPos, player.getY());
+        ZoneData data = zoneData;
+
+        // A reload replaces every zone object, carry over the zones we're tracking so that the player isn't taken out of
+        // and back into the zone they're standing in
+        if(data != trackedData) {
+            currentZone = findSameZone(data, currentZone);
+            predictedZone = findSameZone(data, predictedZone);
+            trackedData = data;
+        }
+
+        updatePrediction(data, player);
+
+        // Nothing to do if the player can't have crossed a zone boundary since the last check
+        if(isInSafeRegion(data, player.getWorld(), playerChunkPos.x, playerChunkPos.z, player.getY())) {
+            return;
+        }
+
+        Zone foundZone = data.index().findZone(player.getWorld(), playerChunkPos.x, playerChunkPos.z, player.getY());
+        updateSafeRegion(data, player.getWorld(), playerChunkPos, player.getY());
 
         if(currentZone != foundZone) {
             if(currentZone != null) {
@@ -60,6 +142,14 @@ public class ZoneGameFeature extends GameFeature {
 
             currentZone = foundZone;
             if(currentZone != null) {
+                if(currentZone == predictedZone) {
+                    predictionHits++;
+                }
+                else {
+                    predictionMisses++;
+                }
+
+                predictedZone = null;
                 handlePlayerEnteredZone(player, currentZone);
             }
             else {
@@ -69,28 +159,163 @@ public class ZoneGameFeature extends GameFeature {
     }
 
     /**
-     * Loads zone data from adventure_zones.json into memory.
+     * Looks ahead along the player's velocity to find the zone they are about to enter, and lets listeners know when that changes.
+     * @param data The zone table in use.
+     * @param player The player to predict for.
+     */
+    private void updatePrediction(ZoneData data, ClientPlayerEntity player) {
+        Zone predicted = predictNextZone(data, player);
+        if(predicted == predictedZone) {
+            return;
+        }
+
+        // A null zone tells listeners to drop whatever they prepared for the previous prediction
+        predictedZone = predicted;
+        PlayerApproachingZoneEvent.EVENT.invoker().approachingZone(getMinecraftClient(), player, predicted);
+    }
+
+    /**
+     * Samples the zone table along the path the player will take if they keep moving the way they are.
+     * @param data The zone table in use.
+     * @param player The player to predict for.
+     * @return The first zone other than the current one on the path, null if the player isn't heading into a zone.
      */
-    private void loadZoneData() {
+    private Zone predictNextZone(ZoneData data, ClientPlayerEntity player) {
+        Vec3d velocity = player.getVelocity();
+        double speed = velocity.horizontalLength();
+        if(speed < 0.01) {
+            return null;
+        }
+
+        World world = player.getWorld();
+        double y = player.getY();
+        double endX = player.getX() + velocity.x * PREDICTION_LOOKAHEAD_TICKS;
+        double endZ = player.getZ() + velocity.z * PREDICTION_LOOKAHEAD_TICKS;
+
+        // The safe region is a square with a single zone column, so if both ends of the path are in it, the whole path is
+        boolean startIsSafe = isInSafeRegion(data, world, player.getChunkPos().x, player.getChunkPos().z, y);
+        boolean endIsSafe = isInSafeRegion(data, world, ChunkSectionPos.getSectionCoord(endX), ChunkSectionPos.getSectionCoord(endZ), y);
+        if(startIsSafe && endIsSafe) {
+            return null;
+        }
+
+        int samples = MathHelper.ceil(speed * PREDICTION_LOOKAHEAD_TICKS / PREDICTION_SAMPLE_DISTANCE);
+        for (int i = 1; i <= samples; i++) {
+            double progress = (double) i / samples;
+            int chunkX = ChunkSectionPos.getSectionCoord(MathHelper.lerp(progress, player.getX(), endX));
+            int chunkZ = ChunkSectionPos.getSectionCoord(MathHelper.lerp(progress, player.getZ(), endZ));
+
+            Zone zone = data.index().findZone(world, chunkX, chunkZ, y);
+            if(zone != currentZone) {
+                return zone;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds the zone with the same id in another zone table.
+     * @param data The zone table to look in.
+     * @param zone The zone to look for, may be null.
+     * @return The matching zone from data. The zone itself if data doesn't have it anymore, so that leaving it is still noticed.
+     */
+    private Zone findSameZone(ZoneData data, Zone zone) {
+        if(zone == null) {
+            return null;
+        }
+
+        for (Zone candidate : data.zones().getZones()) {
+            if(Objects.equals(candidate.getId(), zone.getId()) && Objects.equals(candidate.getWorld(), zone.getWorld())) {
+                return candidate;
+            }
+        }
+
+        return zone;
+    }
+
+    /**
+     * Loads zone data into memory and builds its index.
+     * Uses the override file in the blockgame config folder if there is one, and the zone data bundled with the mod otherwise.
+     * Safe to call from any thread, the result is not published anywhere.
+     * @return The loaded zone table, empty if nothing could be loaded.
+     */
+    private ZoneData loadZoneData() {
+        Path overridePath = getOverridePath();
+
+        if(Files.exists(overridePath)) {
+            BlockgameEnhanced.LOGGER.info("Loading zone data from {}", overridePath);
+
+            try {
+                String json = Files.readString(overridePath, StandardCharsets.UTF_8);
+                ZoneList zones = new Gson().fromJson(json, ZoneList.class);
+                if(zones == null) {
+                    throw new IllegalStateException("File is empty");
+                }
+
+                return new ZoneData(zones, new ZoneIndex(zones));
+            }
+            catch (Exception e) {
+                BlockgameEnhanced.LOGGER.error("Failed to load zone data from {}, using bundled zone data: {}", overridePath, e.getMessage());
+            }
+        }
+
+        ZoneList zones = loadBundledZoneList();
+        return new ZoneData(zones, new ZoneIndex(zones));
+    }
+
+    /**
+     * Loads the zone data that ships with the mod.
+     * @return The bundled zone list, empty if it could not be loaded.
+     */
+    private ZoneList loadBundledZoneList() {
         BlockgameEnhanced.LOGGER.info("Loading zone data");
 
+        // Prefer the data table compiled at build time, the JSON file is only there as a fallback
+        try (InputStream inputStream = ZoneGameFeature.class.getClassLoader().getResourceAsStream(COMPILED_DATA_RESOURCE_PATH)) {
+            if(inputStream != null) {
+                return ZoneList.fromBinary(inputStream);
+            }
+        }
+        catch (Exception e) {
+            BlockgameEnhanced.LOGGER.warn("Failed to load compiled zone data, falling back to JSON: {}", e.getMessage());
+        }
+
         try {
             InputStream inputStream = ZoneGameFeature.class.getClassLoader().getResourceAsStream(DATA_RESOURCE_PATH);
             String json = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
-            zones = new Gson().fromJson(json, ZoneList.class);
+            return new Gson().fromJson(json, ZoneList.class);
         }
         catch (Exception e) {
-            zones = new ZoneList();
-            MinecraftClient.getInstance().getToastManager().add(new SystemToast(
+            // The toast manager belongs to the client thread
+            MinecraftClient client = MinecraftClient.getInstance();
+            client.execute(() -> client.getToastManager().add(new SystemToast(
                     SystemToast.Type.PACK_LOAD_FAILURE,
                     Text.of("Mod Error"),
                     Text.of("Zone data could not be loaded."))
-            );
+            ));
 
             BlockgameEnhanced.LOGGER.error("Failed to load zone data: {}", e.getMessage());
+            return new ZoneList();
         }
     }
 
+    /**
+     * Gets the path of the optional zone table override.
+     * @return Path to adventure_zones.json in the blockgame config folder.
+     */
+    private static Path getOverridePath() {
+        return PathHelper.getBlockgamePath().resolve(OVERRIDE_FILE_NAME);
+    }
+
+    /**
+     * Gets the list of all zones currently in use.
+     * @return The current zone list.
+     */
+    public ZoneList getZones() {
+        return zoneData.zones();
+    }
+
     /**
      * Compiles a list of all zones for the provided dimension.
      * @param world The dimension to fetch all zones for.
@@ -109,43 +334,53 @@ public class ZoneGameFeature extends GameFeature {
 
     /**
      * Checks if the chunk is in a zone.
-     * The last return value of this operation is cached, spam calling is not too inefficient.
+     * Lookups go through the zone index built at load time, spam calling is cheap and does not allocate.
      * @param world The dimension that the chunk is in.
      * @param pos The ChunkPos of the chunk.
      * @param y Y-Position of the player. Used for overlapping zones.
      * @return The zone that was found for this chunk, null if none were found.
      */
     public Zone findZoneInChunk(World world, ChunkPos pos, double y) {
-        if(pos.x == lastCheckedChunkX && pos.z == lastCheckedChunkZ)
-        {
-            if(lastCheckedChunkResult != null && y >= lastCheckedChunkResult.getMinY() && y < lastCheckedChunkResult.getMaxY()) {
-                return lastCheckedChunkResult;
-            }
-        }
-
-        lastCheckedChunkX = pos.x;
-        lastCheckedChunkZ = pos.z;
-
-        List<Zone> zonesForThisWorld = getZonesByWorld(world);
-        for (Zone zone : zonesForThisWorld) {
-            boolean isInHeightRange = y >= zone.getMinY() && y < zone.getMaxY();
-            if(!isInHeightRange) {
-                continue;
-            }
+        return zoneData.index().findZone(world, pos.x, pos.z, y);
+    }
 
-            for (int[] chunk : zone.getChunks()) {
-                if(chunk == null)
-                    continue;
+    /**
+     * Checks if a position is still inside the region measured by the last zone check.
+     * @param data The zone table in use. The region is stale if it was measured against a different one.
+     * @param world The dimension that the player is in.
+     * @param chunkX X-Position of the player's chunk.
+     * @param chunkZ Z-Position of the player's chunk.
+     * @param y Y-Position of the player.
+     * @return Whether the zone at this position is guaranteed to be the same as last time.
+     */
+    private boolean isInSafeRegion(ZoneData data, World world, int chunkX, int chunkZ, double y) {
+        return data == safeData
+                && world == safeWorld
+                && chunkX >= safeMinChunkX && chunkX <= safeMaxChunkX
+                && chunkZ >= safeMinChunkZ && chunkZ <= safeMaxChunkZ
+                && y >= safeMinY && y < safeMaxY;
+    }
 
-                if(pos.x == chunk[0] && pos.z == chunk[1]) {
-                    lastCheckedChunkResult = zone;
-                    return zone;
-                }
-            }
-        }
+    /**
+     * Measures the distance to the nearest zone boundary and height band limits around a position,
+     * so that zone checks can be skipped until the player could actually have crossed an edge.
+     * @param data The zone table to measure against.
+     * @param world The dimension that the player is in.
+     * @param pos The ChunkPos of the player.
+     * @param y Y-Position of the player.
+     */
+    private void updateSafeRegion(ZoneData data, World world, ChunkPos pos, double y) {
+        int radius = data.index().getUniformRadius(world, pos.x, pos.z, MAX_SAFE_RADIUS);
+        ZoneColumn column = data.index().getColumn(world, pos.x, pos.z);
 
-        lastCheckedChunkResult = null;
-        return null;
+        safeData = data;
+        safeWorld = world;
+        safeMinChunkX = pos.x - radius;
+        safeMaxChunkX = pos.x + radius;
+        safeMinChunkZ = pos.z - radius;
+        safeMaxChunkZ = pos.z + radius;
+        safeMinY = column != null ? column.getBandMin(y) : Double.NEGATIVE_INFINITY;
+        safeMaxY = column != null ? column.getBandMax(y) : Double.POSITIVE_INFINITY;
     }
 
     /**
@@ -197,4 +432,10 @@ public class ZoneGameFeature extends GameFeature {
             }
         }
     }
+
+    /**
+     * A zone list together with the index built from it.
+     */
+    private record ZoneData(ZoneList zones, ZoneIndex index) {
+    }
 }
@@ -0,0 +1,156 @@
+package dev.jb0s.blockgameenhanced.gamefeature.zone;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spatial index over the zone table, built once when zone data is loaded.
+ * Every chunk that belongs to at least one zone maps to a {@link ZoneColumn}, keyed by its packed chunk coordinates.
+ * The same chunks are also merged into {@link ZoneRow}s so that the distance to the nearest zone boundary can be measured.
+ */
+public class ZoneIndex {
+    private final HashMap<String, Long2ObjectOpenHashMap<ZoneColumn>> columnsByWorld = new HashMap<>();
+    private final HashMap<String, Int2ObjectOpenHashMap<ZoneRow>> rowsByWorld = new HashMap<>();
+
+    public ZoneIndex(ZoneList zoneList) {
+        HashMap<String, Long2ObjectOpenHashMap<List<Zone>>> zonesByWorld = new HashMap<>();
+
+        // Collect every zone that claims each chunk, in file order
+        for (Zone zone : zoneList.getZones()) {
+            if(zone.getWorld() == null || zone.getPackedChunks() == null) {
+                continue;
+            }
+
+            Long2ObjectOpenHashMap<List<Zone>> worldChunks = zonesByWorld.computeIfAbsent(zone.getWorld(), x -> new Long2ObjectOpenHashMap<>());
+            for (long key : zone.getPackedChunks()) {
+                List<Zone> zones = worldChunks.get(key);
+                if(zones == null) {
+                    zones = new ArrayList<>();
+                    worldChunks.put(key, zones);
+                }
+
+                if(!zones.contains(zone)) {
+                    zones.add(zone);
+                }
+            }
+        }
+
+        // Chunks claimed by the same zones share a single column instance
+        HashMap<List<Zone>, ZoneColumn> sharedColumns = new HashMap<>();
+        for (Map.Entry<String, Long2ObjectOpenHashMap<List<Zone>>> world : zonesByWorld.entrySet()) {
+            Long2ObjectOpenHashMap<ZoneColumn> columns = new Long2ObjectOpenHashMap<>(world.getValue().size());
+
+            for (Long2ObjectMap.Entry<List<Zone>> chunk : world.getValue().long2ObjectEntrySet()) {
+                ZoneColumn column = sharedColumns.computeIfAbsent(chunk.getValue(), x -> new ZoneColumn(x.toArray(new Zone[0])));
+                columns.put(chunk.getLongKey(), column);
+            }
+
+            columnsByWorld.put(world.getKey(), columns);
+            rowsByWorld.put(world.getKey(), buildRows(columns));
+        }
+    }
+
+    /**
+     * Merges the claimed chunks of a dimension into rows of runs.
+     * @param columns All claimed chunks of the dimension.
+     * @return A map of rows keyed by their chunk Z-Position.
+     */
+    private static Int2ObjectOpenHashMap<ZoneRow> buildRows(Long2ObjectOpenHashMap<ZoneColumn> columns) {
+        Int2ObjectOpenHashMap<IntArrayList> xsByRow = new Int2ObjectOpenHashMap<>();
+        for (long key : columns.keySet()) {
+            int z = ChunkPos.getPackedZ(key);
+            IntArrayList xs = xsByRow.get(z);
+            if(xs == null) {
+                xs = new IntArrayList();
+                xsByRow.put(z, xs);
+            }
+
+            xs.add(ChunkPos.getPackedX(key));
+        }
+
+        Int2ObjectOpenHashMap<ZoneRow> rows = new Int2ObjectOpenHashMap<>(xsByRow.size());
+        for (Int2ObjectMap.Entry<IntArrayList> row : xsByRow.int2ObjectEntrySet()) {
+            int[] xs = row.getValue().toIntArray();
+            Arrays.sort(xs);
+
+            ZoneColumn[] rowColumns = new ZoneColumn[xs.length];
+            for (int i = 0; i < xs.length; i++) {
+                rowColumns[i] = columns.get(ChunkPos.toLong(xs[i], row.getIntKey()));
+            }
+
+            rows.put(row.getIntKey(), new ZoneRow(xs, rowColumns));
+        }
+
+        return rows;
+    }
+
+    /**
+     * Gets the column of zones that claim a chunk.
+     * @param world The dimension that the chunk is in.
+     * @param chunkX X-Position of the chunk.
+     * @param chunkZ Z-Position of the chunk.
+     * @return The zone column for this chunk, null if no zone claims it.
+     */
+    public ZoneColumn getColumn(World world, int chunkX, int chunkZ) {
+        Long2ObjectOpenHashMap<ZoneColumn> columns = columnsByWorld.get(world.getRegistryKey().getValue().getPath());
+        if(columns == null) {
+            return null;
+        }
+
+        return columns.get(ChunkPos.toLong(chunkX, chunkZ));
+    }
+
+    /**
+     * Finds the zone at a position.
+     * @param world The dimension to look in.
+     * @param chunkX X-Position of the chunk.
+     * @param chunkZ Z-Position of the chunk.
+     * @param y Y-Position to look up. Used for overlapping zones.
+     * @return The zone that was found at this position, null if none were found.
+     */
+    public Zone findZone(World world, int chunkX, int chunkZ, double y) {
+        ZoneColumn column = getColumn(world, chunkX, chunkZ);
+        return column != null ? column.find(y) : null;
+    }
+
+    /**
+     * Measures how far the player can move from a chunk before the zone lookup could give a different answer.
+     * @param world The dimension that the chunk is in.
+     * @param chunkX X-Position of the chunk.
+     * @param chunkZ Z-Position of the chunk.
+     * @param maxRadius Largest radius worth measuring.
+     * @return The largest radius (in chunks, square) around the chunk in which every chunk has the same zone column, capped at maxRadius.
+     */
+    public int getUniformRadius(World world, int chunkX, int chunkZ, int maxRadius) {
+        Int2ObjectOpenHashMap<ZoneRow> rows = rowsByWorld.get(world.getRegistryKey().getValue().getPath());
+        if(rows == null) {
+            // No zones in this dimension at all
+            return maxRadius;
+        }
+
+        ZoneColumn column = getColumn(world, chunkX, chunkZ);
+        for (int radius = 1; radius <= maxRadius; radius++) {
+            for (int z = chunkZ - radius; z <= chunkZ + radius; z++) {
+                ZoneRow row = rows.get(z);
+                boolean isUniform = row != null ? row.isUniform(chunkX - radius, chunkX + radius, column) : column == null;
+
+                if(!isUniform) {
+                    return radius - 1;
+                }
+            }
+        }
+
+        return maxRadius;
+    }
+}
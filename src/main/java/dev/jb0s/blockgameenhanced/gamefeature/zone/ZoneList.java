@@ -1,12 +1,65 @@
 package dev.jb0s.blockgameenhanced.gamefeature.zone;
 
+import dev.jb0s.blockgameenhanced.helper.BinaryDataHelper;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
 public class ZoneList {
     private Zone[] zones;
 
+    public ZoneList() {
+    }
+
+    public ZoneList(Zone[] zones) {
+        this.zones = zones;
+    }
+
     public Zone[] getZones() {
         if(zones == null)
             zones = new Zone[0];
 
         return zones;
     }
+
+    /**
+     * Decodes a zone list from the binary data table compiled at build time.
+     * @param inputStream Stream of the compiled adventure_zones.bin resource.
+     * @return The decoded zone list.
+     * @throws IOException If the data table is malformed or was compiled for a different format version.
+     */
+    public static ZoneList fromBinary(InputStream inputStream) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
+        BinaryDataHelper.readHeader(input, BinaryDataHelper.KIND_ZONES);
+        String[] strings = BinaryDataHelper.readStringTable(input);
+
+        Zone[] zones = new Zone[input.readInt()];
+        for (int i = 0; i < zones.length; i++) {
+            String id = BinaryDataHelper.getString(strings, input.readInt());
+            String world = BinaryDataHelper.getString(strings, input.readInt());
+            String musicType = BinaryDataHelper.getString(strings, input.readInt());
+            boolean adventure = input.readBoolean();
+            String music = BinaryDataHelper.getString(strings, input.readInt());
+            int minY = input.readInt();
+            int maxY = input.readInt();
+
+            ZoneBoss battle = null;
+            if(input.readBoolean()) {
+                String boss = BinaryDataHelper.getString(strings, input.readInt());
+                String battleMusic = BinaryDataHelper.getString(strings, input.readInt());
+                battle = new ZoneBoss(boss, battleMusic, input.readInt());
+            }
+
+            long[] packedChunks = new long[input.readInt()];
+            for (int j = 0; j < packedChunks.length; j++) {
+                packedChunks[j] = input.readLong();
+            }
+
+            zones[i] = new Zone(id, world, musicType, adventure, battle, music, packedChunks, minY, maxY);
+        }
+
+        return new ZoneList(zones);
+    }
 }
@@ -0,0 +1,85 @@
+package dev.jb0s.blockgameenhanced.gamefeature.zone;
+
+import java.util.Arrays;
+
+/**
+ * A single row of chunks (same Z) with neighbouring chunks that share a {@link ZoneColumn} merged into runs.
+ * Runs are sorted by their start X and never overlap.
+ */
+public class ZoneRow {
+    private final int[] starts;
+    private final int[] ends;
+    private final ZoneColumn[] columns;
+
+    /**
+     * Builds a row out of chunk X positions and their columns.
+     * @param xs X-Positions of all claimed chunks in this row, sorted ascending.
+     * @param columnsByX The column of each chunk in xs, in the same order.
+     */
+    public ZoneRow(int[] xs, ZoneColumn[] columnsByX) {
+        int[] starts = new int[xs.length];
+        int[] ends = new int[xs.length];
+        ZoneColumn[] columns = new ZoneColumn[xs.length];
+        int runs = 0;
+
+        for (int i = 0; i < xs.length; i++) {
+            boolean extendsLastRun = runs > 0 && ends[runs - 1] + 1 == xs[i] && columns[runs - 1] == columnsByX[i];
+            if(extendsLastRun) {
+                ends[runs - 1] = xs[i];
+                continue;
+            }
+
+            starts[runs] = xs[i];
+            ends[runs] = xs[i];
+            columns[runs] = columnsByX[i];
+            runs++;
+        }
+
+        this.starts = Arrays.copyOf(starts, runs);
+        this.ends = Arrays.copyOf(ends, runs);
+        this.columns = Arrays.copyOf(columns, runs);
+    }
+
+    /**
+     * Checks whether every chunk between minX and maxX (inclusive) belongs to the provided column.
+     * @param minX Left-most chunk X-Position of the span.
+     * @param maxX Right-most chunk X-Position of the span.
+     * @param column The column the span should consist of. Null checks that no zone claims any chunk in the span.
+     * @return Whether the whole span is covered by this column.
+     */
+    public boolean isUniform(int minX, int maxX, ZoneColumn column) {
+        int run = findLastRunStartingAtOrBefore(minX);
+
+        if(column == null) {
+            // The run before minX may still reach into the span, and so may the one after it.
+            boolean previousRunReachesSpan = run >= 0 && ends[run] >= minX;
+            boolean nextRunReachesSpan = run + 1 < starts.length && starts[run + 1] <= maxX;
+            return !previousRunReachesSpan && !nextRunReachesSpan;
+        }
+
+        return run >= 0 && columns[run] == column && ends[run] >= maxX;
+    }
+
+    /**
+     * Binary searches for the last run whose start is at or before x.
+     * @return Index of the run, -1 if every run starts after x.
+     */
+    private int findLastRunStartingAtOrBefore(int x) {
+        int low = 0;
+        int high = starts.length - 1;
+        int found = -1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if(starts[mid] <= x) {
+                found = mid;
+                low = mid + 1;
+            }
+            else {
+                high = mid - 1;
+            }
+        }
+
+        return found;
+    }
+}
@@ -1,6 +1,7 @@
 package dev.jb0s.blockgameenhanced.gamefeature.zoneboss;
 
 import dev.jb0s.blockgameenhanced.BlockgameEnhancedClient;
+import dev.jb0s.blockgameenhanced.event.adventurezone.PlayerApproachingZoneEvent;
 import dev.jb0s.blockgameenhanced.event.adventurezone.PlayerEnteredZoneEvent;
 import dev.jb0s.blockgameenhanced.event.adventurezone.PlayerExitedZoneEvent;
 import dev.jb0s.blockgameenhanced.event.bossbattle.BossBattleCommencedEvent;
@@ -23,6 +24,10 @@ public class ZoneBossGameFeature extends GameFeature {
     @Getter
     private ZoneBoss currentBattle;
 
+    // Battle of the zone the player is about to enter, and its boss bar once it shows up
+    private ZoneBoss armedBattle;
+    private ClientBossBar armedBattleBossBar;
+
     @Override
     public void init(MinecraftClient minecraftClient, BlockgameEnhancedClient blockgameClient) {
         super.init(minecraftClient, blockgameClient);
@@ -30,6 +35,12 @@ public class ZoneBossGameFeature extends GameFeature {
 
         PlayerEnteredZoneEvent.EVENT.register(this::onPlayerEnteredZone);
         PlayerExitedZoneEvent.EVENT.register(this::onPlayerExitedZone);
+        PlayerApproachingZoneEvent.EVENT.register(this::onPlayerApproachingZone);
+    }
+
+    private void onPlayerApproachingZone(MinecraftClient client, ClientPlayerEntity clientPlayerEntity, Zone zone) {
+        armedBattle = zone != null ? zone.getBattle() : null;
+        armedBattleBossBar = null;
     }
 
     private void onPlayerExitedZone(MinecraftClient client, ClientPlayerEntity clientPlayerEntity, Zone zone) {
@@ -41,7 +52,16 @@ public class ZoneBossGameFeature extends GameFeature {
     private void onPlayerEnteredZone(MinecraftClient client, ClientPlayerEntity clientPlayerEntity, Zone zone) {
         if(zone.getBattle() != null) {
             setCurrentBattle(zone.getBattle());
+
+            // If we already spotted the boss while approaching, the battle can begin right away
+            if(armedBattle == zone.getBattle() && BossBarHelper.isBossBarOnScreen(armedBattleBossBar)) {
+                currentBattleBossBar = armedBattleBossBar;
+                beginBossBattle();
+            }
         }
+
+        armedBattle = null;
+        armedBattleBossBar = null;
     }
 
     @Override
@@ -50,6 +70,11 @@ public class ZoneBossGameFeature extends GameFeature {
             case PENDING_START -> tickPendingBattle();
             case IN_PROGRESS -> tickInProgress();
         }
+
+        // Look out for the boss of the zone we're approaching
+        if(armedBattle != null && armedBattleBossBar == null) {
+            armedBattleBossBar = findBossBar(armedBattle);
+        }
     }
 
     /**
@@ -62,15 +87,28 @@ public class ZoneBossGameFeature extends GameFeature {
             return;
         }
 
-        for (ClientBossBar bossBar : BossBarHelper.getBossBars().values()) {
-            // Check boss bar name. If it matches with the boss we're waiting for, we're ready to begin the battle.
+        // If the boss bar is on screen, we're ready to begin the battle.
+        ClientBossBar bossBar = findBossBar(currentBattle);
+        if(bossBar != null) {
+            currentBattleBossBar = bossBar;
+            beginBossBattle();
+        }
+    }
 
-            if(bossBar.getName().getString().startsWith(currentBattle.getBoss())) {
-                currentBattleBossBar = bossBar;
-                beginBossBattle();
-                return;
+    /**
+     * Finds the boss bar belonging to a zone boss.
+     * @param boss The boss to look for.
+     * @return The boss bar whose name matches the boss, null if it isn't on screen.
+     */
+    private ClientBossBar findBossBar(ZoneBoss boss) {
+        for (ClientBossBar bossBar : BossBarHelper.getBossBars().values()) {
+            // Check boss bar name. If it matches with the boss we're waiting for, that's our boss.
+            if(bossBar.getName().getString().startsWith(boss.getBoss())) {
+                return bossBar;
             }
         }
+
+        return null;
     }
 
     /**
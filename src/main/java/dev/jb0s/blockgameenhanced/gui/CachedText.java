@@ -0,0 +1,57 @@
+package dev.jb0s.blockgameenhanced.gui;
+
+import lombok.Getter;
+import net.minecraft.client.font.TextRenderer;
+
+/**
+ * A piece of HUD text together with its width, rebuilt only when the value it was built from changes.
+ * Drawing it every frame neither formats nor measures anything.
+ * The value is an optional object compared by equality (e.g. a player name) plus an int (e.g. health, or a distance).
+ */
+public class CachedText {
+    private Object key;
+    private int keyValue;
+    private boolean isValid;
+
+    @Getter
+    private String text = "";
+
+    @Getter
+    private int width;
+
+    /**
+     * Shows the text for a value, rebuilding it only if it's a different value than last time.
+     * @param key The object part of the value, may be null.
+     * @param value The int part of the value.
+     * @param formatter Builds the text from the value. Should not capture anything, so that passing it doesn't allocate.
+     * @param textRenderer Text renderer to measure the text with.
+     * @return This, for chaining.
+     */
+    public <K> CachedText update(K key, int value, Formatter<K> formatter, TextRenderer textRenderer) {
+        if(isValid && value == keyValue && (key == this.key || (key != null && key.equals(this.key)))) {
+            return this;
+        }
+
+        this.key = key;
+        keyValue = value;
+        isValid = true;
+        text = formatter.format(key, value);
+        width = textRenderer.getWidth(text);
+        return this;
+    }
+
+    /**
+     * Shows a number, rebuilding the text only if it's a different number than last time.
+     * @param value The number to show.
+     * @param textRenderer Text renderer to measure the text with.
+     * @return This, for chaining.
+     */
+    public CachedText setNumber(int value, TextRenderer textRenderer) {
+        return update(null, value, (key, number) -> String.valueOf(number), textRenderer);
+    }
+
+    @FunctionalInterface
+    public interface Formatter<K> {
+        String format(K key, int value);
+    }
+}
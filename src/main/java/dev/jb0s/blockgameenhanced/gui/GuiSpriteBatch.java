@@ -0,0 +1,115 @@
+package dev.jb0s.blockgameenhanced.gui;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.GameRenderer;
+import net.minecraft.client.render.Tessellator;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.profiler.Profiler;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+
+/**
+ * Collects textured quads from a single texture and draws all of them with one draw call, instead of setting up and
+ * flushing a buffer for every DrawContext.drawTexture call.
+ * Like {@link ItemOverlayBatch}, positions are resolved against the matrix stack when a quad is queued, which only
+ * supports matrices that translate.
+ */
+public class GuiSpriteBatch {
+    private static final Vector3f SCRATCH = new Vector3f();
+
+    private final Identifier texture;
+    private final float textureWidth;
+    private final float textureHeight;
+
+    // x1, y1, x2, y2, z, u1, v1, u2, v2 per quad
+    private float[] quads = new float[9 * 32];
+    private int quadCount;
+
+    /**
+     * @param texture The texture all quads in this batch are cut from.
+     * @param textureWidth Width of the texture in pixels.
+     * @param textureHeight Height of the texture in pixels.
+     */
+    public GuiSpriteBatch(Identifier texture, int textureWidth, int textureHeight) {
+        this.texture = texture;
+        this.textureWidth = textureWidth;
+        this.textureHeight = textureHeight;
+    }
+
+    /**
+     * Queues a region of the texture. Takes the same arguments as DrawContext.drawTexture.
+     * @param matrices The matrix stack the quad would have been drawn with.
+     * @param x the X coordinate of the rectangle
+     * @param y the Y coordinate of the rectangle
+     * @param u the left-most coordinate of the texture region
+     * @param v the top-most coordinate of the texture region
+     * @param width the width
+     * @param height the height
+     */
+    public void add(MatrixStack matrices, int x, int y, int u, int v, int width, int height) {
+        if(width <= 0 || height <= 0) {
+            return;
+        }
+
+        if((quadCount + 1) * 9 > quads.length) {
+            quads = Arrays.copyOf(quads, quads.length * 2);
+        }
+
+        Matrix4f pose = matrices.peek().getPositionMatrix();
+        int i = quadCount++ * 9;
+
+        pose.transformPosition(x, y, 0, SCRATCH);
+        quads[i] = SCRATCH.x;
+        quads[i + 1] = SCRATCH.y;
+        quads[i + 4] = SCRATCH.z;
+
+        pose.transformPosition(x + width, y + height, 0, SCRATCH);
+        quads[i + 2] = SCRATCH.x;
+        quads[i + 3] = SCRATCH.y;
+
+        quads[i + 5] = u / textureWidth;
+        quads[i + 6] = v / textureHeight;
+        quads[i + 7] = (u + width) / textureWidth;
+        quads[i + 8] = (v + height) / textureHeight;
+    }
+
+    /**
+     * Draws every queued quad in one go and empties the batch.
+     * @param profiler Every draw call is counted as a "drawCall" marker in the current profiler section.
+     */
+    public void draw(Profiler profiler) {
+        if(quadCount == 0) {
+            return;
+        }
+
+        RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, 1.0f);
+        RenderSystem.setShader(GameRenderer::getPositionTexProgram);
+        RenderSystem.setShaderTexture(0, texture);
+        RenderSystem.enableBlend();
+
+        Tessellator tessellator = Tessellator.getInstance();
+        BufferBuilder bufferBuilder = tessellator.getBuffer();
+        bufferBuilder.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE);
+
+        for (int q = 0; q < quadCount; q++) {
+            int i = q * 9;
+            float x1 = quads[i], y1 = quads[i + 1], x2 = quads[i + 2], y2 = quads[i + 3], z = quads[i + 4];
+            float u1 = quads[i + 5], v1 = quads[i + 6], u2 = quads[i + 7], v2 = quads[i + 8];
+
+            bufferBuilder.vertex(x1, y1, z).texture(u1, v1).next();
+            bufferBuilder.vertex(x1, y2, z).texture(u1, v2).next();
+            bufferBuilder.vertex(x2, y2, z).texture(u2, v2).next();
+            bufferBuilder.vertex(x2, y1, z).texture(u2, v1).next();
+        }
+
+        tessellator.draw();
+        profiler.visit("drawCall");
+        quadCount = 0;
+    }
+}
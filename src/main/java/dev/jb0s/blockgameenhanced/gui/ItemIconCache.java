@@ -0,0 +1,258 @@
+package dev.jb0s.blockgameenhanced.gui;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.systems.VertexSorter;
+import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gl.SimpleFramebuffer;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.GameRenderer;
+import net.minecraft.client.render.Tessellator;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.client.render.model.BakedModel;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NbtCompound;
+import org.joml.Matrix4f;
+import org.lwjgl.opengl.GL11;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Keeps recently drawn GUI item icons in an atlas framebuffer, so widgets that show the same item for many frames (like
+ * the pickup stream) can draw a single textured quad instead of running the item renderer every frame.
+ * Icons are keyed by item and NBT, and the least recently drawn icon makes room once the atlas is full. The whole
+ * cache is thrown away when the GUI scale changes or resources are reloaded.
+ * Widgets hold on to an {@link Icon} for their item, which remembers its slot, so the key only has to be looked up
+ * again after the cache was cleared or the icon was evicted.
+ * Icons are a still image of the item, so an enchantment glint or an animated texture doesn't move while cached.
+ */
+public class ItemIconCache {
+    private static final int ICON_SIZE = 16;
+    private static final int SLOTS_PER_ROW = 8;
+    private static final int SLOT_COUNT = SLOTS_PER_ROW * SLOTS_PER_ROW;
+    private static final int ATLAS_SIZE = ICON_SIZE * SLOTS_PER_ROW;
+
+    private static final HashMap<IconKey, Integer> slots = new HashMap<>(SLOT_COUNT * 2);
+    private static int usedSlots;
+
+    // The key each slot currently holds, and when it was last drawn
+    private static final IconKey[] slotKeys = new IconKey[SLOT_COUNT];
+    private static final long[] slotLastDrawn = new long[SLOT_COUNT];
+    private static long drawCount;
+
+    // Bumped whenever the cache is cleared, so icons know that their slot is gone
+    private static int generation;
+
+    private static SimpleFramebuffer atlas;
+    private static boolean isBroken;
+
+    // What the icons in the atlas were rendered for
+    private static double scaleFactor;
+    private static BakedModel missingModel;
+
+    /**
+     * Draws the icon of an item, like DrawContext.drawItem but from the cache.
+     * Falls back to drawing the item directly if icon caching is turned off or not supported.
+     * @param context The draw context.
+     * @param icon The icon of the item to draw.
+     * @param x X-Position of the icon.
+     * @param y Y-Position of the icon.
+     */
+    public static void drawItem(DrawContext context, Icon icon, int x, int y) {
+        ItemStack stack = icon.stack;
+        if(stack.isEmpty()) {
+            return;
+        }
+        if(isBroken || !BlockgameEnhanced.getConfig().getIngameHudConfig().cacheItemIcons) {
+            context.drawItem(stack, x, y);
+            return;
+        }
+
+        validate();
+
+        // Only look the item up again if its slot was cleared or handed to another item since the last frame
+        if(icon.generation != generation || slotKeys[icon.slot] != icon.key) {
+            if(!resolve(context, icon)) {
+                context.drawItem(stack, x, y);
+                return;
+            }
+        }
+
+        slotLastDrawn[icon.slot] = ++drawCount;
+        drawIcon(context, icon.slot, x, y);
+    }
+
+    /**
+     * Forgets all cached icons.
+     */
+    public static void clear() {
+        slots.clear();
+        Arrays.fill(slotKeys, null);
+        usedSlots = 0;
+        generation++;
+    }
+
+    /**
+     * Finds the slot of an icon, rendering it into the atlas if it isn't in there yet.
+     * @return Whether the icon is in the atlas now.
+     */
+    private static boolean resolve(DrawContext context, Icon icon) {
+        ItemStack stack = icon.stack;
+        Integer slot = slots.get(new IconKey(stack.getItem(), stack.getNbt()));
+        if(slot == null) {
+            slot = allocateSlot();
+            if(!renderIcon(context, stack, slot)) {
+                return false;
+            }
+
+            // Copy the NBT so that changes to the stack can't change the key of a cached icon
+            NbtCompound nbt = stack.getNbt();
+            IconKey key = new IconKey(stack.getItem(), nbt == null ? null : nbt.copy());
+            slots.put(key, slot);
+            slotKeys[slot] = key;
+        }
+
+        icon.key = slotKeys[slot];
+        icon.slot = slot;
+        icon.generation = generation;
+        return true;
+    }
+
+    private static void validate() {
+        MinecraftClient client = MinecraftClient.getInstance();
+        double scale = client.getWindow().getScaleFactor();
+
+        // The missing model is baked again on every resource reload, which is a cheap way to notice one
+        BakedModel model = client.getBakedModelManager().getMissingModel();
+        if(scale != scaleFactor || model != missingModel) {
+            clear();
+            scaleFactor = scale;
+            missingModel = model;
+        }
+    }
+
+    private static int allocateSlot() {
+        if(usedSlots < SLOT_COUNT) {
+            return usedSlots++;
+        }
+
+        // The atlas is full, so the least recently drawn icon has to go
+        int slot = 0;
+        for (int i = 1; i < SLOT_COUNT; i++) {
+            if(slotLastDrawn[i] < slotLastDrawn[slot]) {
+                slot = i;
+            }
+        }
+
+        slots.remove(slotKeys[slot]);
+        slotKeys[slot] = null;
+        return slot;
+    }
+
+    private static boolean renderIcon(DrawContext context, ItemStack stack, int slot) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        int pixelSize = (int) Math.ceil(ATLAS_SIZE * scaleFactor);
+        int slotPixelSize = pixelSize / SLOTS_PER_ROW;
+
+        try {
+            if(atlas == null) {
+                atlas = new SimpleFramebuffer(pixelSize, pixelSize, true, MinecraftClient.IS_SYSTEM_MAC);
+            }
+            else if(atlas.textureWidth != pixelSize) {
+                atlas.resize(pixelSize, pixelSize, MinecraftClient.IS_SYSTEM_MAC);
+            }
+        }
+        catch (Exception e) {
+            BlockgameEnhanced.LOGGER.warn("Item icon caching is not available, drawing items directly instead: {}", e.getMessage());
+            if(atlas != null) {
+                atlas.delete();
+                atlas = null;
+            }
+
+            clear();
+            isBroken = true;
+            return false;
+        }
+
+        int column = slot % SLOTS_PER_ROW;
+        int row = slot / SLOTS_PER_ROW;
+
+        // Anything the HUD still has queued belongs on the main framebuffer
+        context.draw();
+
+        Matrix4f projection = RenderSystem.getProjectionMatrix();
+        VertexSorter vertexSorting = RenderSystem.getVertexSorting();
+        atlas.beginWrite(true);
+
+        // Only wipe the slot we're about to use, framebuffers are stored bottom-up
+        RenderSystem.enableScissor(column * slotPixelSize, pixelSize - (row + 1) * slotPixelSize, slotPixelSize, slotPixelSize);
+        RenderSystem.clearColor(0.0f, 0.0f, 0.0f, 0.0f);
+        RenderSystem.clearDepth(1.0);
+        RenderSystem.clear(GL11.GL_COLOR_BUFFER_BIT | GL11.GL_DEPTH_BUFFER_BIT, MinecraftClient.IS_SYSTEM_MAC);
+        RenderSystem.disableScissor();
+
+        RenderSystem.setProjectionMatrix(new Matrix4f().setOrtho(0.0f, ATLAS_SIZE, ATLAS_SIZE, 0.0f, 1000.0f, 21000.0f), VertexSorter.BY_Z);
+        context.getMatrices().push();
+        context.getMatrices().loadIdentity();
+        context.drawItem(stack, column * ICON_SIZE, row * ICON_SIZE);
+        context.getMatrices().pop();
+        context.draw();
+
+        RenderSystem.setProjectionMatrix(projection, vertexSorting);
+        client.getFramebuffer().beginWrite(true);
+        return true;
+    }
+
+    private static void drawIcon(DrawContext context, int slot, int x, int y) {
+        float u1 = (float) (slot % SLOTS_PER_ROW) / SLOTS_PER_ROW;
+        float u2 = u1 + 1.0f / SLOTS_PER_ROW;
+        float v1 = 1.0f - (float) (slot / SLOTS_PER_ROW) / SLOTS_PER_ROW;
+        float v2 = v1 - 1.0f / SLOTS_PER_ROW;
+
+        RenderSystem.setShader(GameRenderer::getPositionTexProgram);
+        RenderSystem.setShaderTexture(0, atlas.getColorAttachment());
+        RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, 1.0f);
+
+        // Same as OffscreenHudLayer, the icons were blended onto a transparent background so their colors are premultiplied
+        RenderSystem.enableBlend();
+        RenderSystem.blendFunc(GlStateManager.SrcFactor.ONE, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA);
+
+        Matrix4f pose = context.getMatrices().peek().getPositionMatrix();
+        Tessellator tessellator = Tessellator.getInstance();
+        BufferBuilder bufferBuilder = tessellator.getBuffer();
+        bufferBuilder.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE);
+        bufferBuilder.vertex(pose, x, y, 0.0f).texture(u1, v1).next();
+        bufferBuilder.vertex(pose, x, y + ICON_SIZE, 0.0f).texture(u1, v2).next();
+        bufferBuilder.vertex(pose, x + ICON_SIZE, y + ICON_SIZE, 0.0f).texture(u2, v2).next();
+        bufferBuilder.vertex(pose, x + ICON_SIZE, y, 0.0f).texture(u2, v1).next();
+        tessellator.draw();
+
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.disableBlend();
+    }
+
+    /**
+     * An item as drawn by a widget, which remembers where its icon is in the atlas.
+     */
+    public static class Icon {
+        private final ItemStack stack;
+        private IconKey key;
+        private int slot;
+        private int generation = -1;
+
+        /**
+         * @param stack The item to draw. Changes to its NBT after the first draw aren't picked up.
+         */
+        public Icon(ItemStack stack) {
+            this.stack = stack;
+        }
+    }
+
+    private record IconKey(Item item, NbtCompound nbt) {
+    }
+}
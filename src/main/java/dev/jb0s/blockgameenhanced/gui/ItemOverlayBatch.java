@@ -0,0 +1,162 @@
+package dev.jb0s.blockgameenhanced.gui;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.render.LightmapTextureManager;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.client.util.math.MatrixStack;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+
+/**
+ * Collects the overlays we draw on top of item slots (cooldown fills, charge labels) over a whole frame, and draws them
+ * all at once right before the GUI is flushed. Every slot used to create and flush its own buffers, which added up to
+ * hundreds of draw calls with a full inventory open.
+ * Positions are resolved against the matrix stack when an overlay is queued, so overlays end up where they would have
+ * been drawn immediately. GUI matrices only ever translate, which is all this supports.
+ */
+public class ItemOverlayBatch {
+    /**
+     * Outline color for labels that have no outline.
+     */
+    public static final int NO_OUTLINE = -1;
+
+    // Fills: x1, y1, x2, y2, z per entry
+    private static float[] fillCoords = new float[5 * 64];
+    private static int[] fillColors = new int[64];
+    private static int fillCount;
+
+    // Labels: x, y, z per entry
+    private static String[] labelTexts = new String[64];
+    private static float[] labelCoords = new float[3 * 64];
+    private static int[] labelColors = new int[64];
+    private static int[] labelOutlineColors = new int[64];
+    private static int labelCount;
+
+    private static final Vector3f SCRATCH = new Vector3f();
+    private static final Matrix4f LABEL_MATRIX = new Matrix4f();
+
+    /**
+     * Queues a filled rectangle.
+     * @param matrices The matrix stack the rectangle would have been drawn with.
+     * @param x1 Left edge.
+     * @param y1 Top edge.
+     * @param x2 Right edge.
+     * @param y2 Bottom edge.
+     * @param z Depth of the rectangle, relative to the matrix stack.
+     * @param color ARGB color of the rectangle.
+     */
+    public static void queueFill(MatrixStack matrices, int x1, int y1, int x2, int y2, float z, int color) {
+        if(fillCount == fillColors.length) {
+            fillCoords = Arrays.copyOf(fillCoords, fillCoords.length * 2);
+            fillColors = Arrays.copyOf(fillColors, fillColors.length * 2);
+        }
+
+        Matrix4f pose = matrices.peek().getPositionMatrix();
+        int i = fillCount * 5;
+
+        pose.transformPosition(x1, y1, z, SCRATCH);
+        fillCoords[i] = SCRATCH.x;
+        fillCoords[i + 1] = SCRATCH.y;
+        fillCoords[i + 4] = SCRATCH.z;
+
+        pose.transformPosition(x2, y2, z, SCRATCH);
+        fillCoords[i + 2] = SCRATCH.x;
+        fillCoords[i + 3] = SCRATCH.y;
+
+        fillColors[fillCount++] = color;
+    }
+
+    /**
+     * Queues a right-aligned label. The label is measured once, here.
+     * @param matrices The matrix stack the label would have been drawn with.
+     * @param textRenderer Text renderer to measure the label with.
+     * @param text The label.
+     * @param rightX X-Position of the right edge of the label.
+     * @param y Y-Position of the top of the label.
+     * @param z Depth of the label, relative to the matrix stack.
+     * @param color RGB color of the label.
+     * @param outlineColor RGB color of the one pixel outline, or NO_OUTLINE.
+     */
+    public static void queueLabel(MatrixStack matrices, TextRenderer textRenderer, String text, int rightX, int y, float z, int color, int outlineColor) {
+        if(labelCount == labelTexts.length) {
+            labelTexts = Arrays.copyOf(labelTexts, labelTexts.length * 2);
+            labelCoords = Arrays.copyOf(labelCoords, labelCoords.length * 2);
+            labelColors = Arrays.copyOf(labelColors, labelColors.length * 2);
+            labelOutlineColors = Arrays.copyOf(labelOutlineColors, labelOutlineColors.length * 2);
+        }
+
+        matrices.peek().getPositionMatrix().transformPosition(rightX - textRenderer.getWidth(text), y, z, SCRATCH);
+
+        int i = labelCount * 3;
+        labelCoords[i] = SCRATCH.x;
+        labelCoords[i + 1] = SCRATCH.y;
+        labelCoords[i + 2] = SCRATCH.z;
+        labelTexts[labelCount] = text;
+        labelColors[labelCount] = color;
+        labelOutlineColors[labelCount++] = outlineColor;
+    }
+
+    /**
+     * Draws everything that was queued this frame in one go, fills first and labels on top.
+     * Must be called while the GUI projection is still set up.
+     */
+    public static void flush() {
+        if(fillCount == 0 && labelCount == 0) {
+            return;
+        }
+
+        MinecraftClient client = MinecraftClient.getInstance();
+        VertexConsumerProvider.Immediate immediate = client.getBufferBuilders().getEntityVertexConsumers();
+
+        if(fillCount > 0) {
+            VertexConsumer buffer = immediate.getBuffer(RenderLayer.getGui());
+            for (int f = 0; f < fillCount; f++) {
+                int i = f * 5;
+                float x1 = fillCoords[i], y1 = fillCoords[i + 1], x2 = fillCoords[i + 2], y2 = fillCoords[i + 3], z = fillCoords[i + 4];
+                int c = fillColors[f];
+                int a = c >>> 24, r = (c >> 16) & 0xFF, g = (c >> 8) & 0xFF, b = c & 0xFF;
+
+                buffer.vertex(x1, y1, z).color(r, g, b, a).next();
+                buffer.vertex(x1, y2, z).color(r, g, b, a).next();
+                buffer.vertex(x2, y2, z).color(r, g, b, a).next();
+                buffer.vertex(x2, y1, z).color(r, g, b, a).next();
+            }
+        }
+
+        TextRenderer textRenderer = client.textRenderer;
+        for (int l = 0; l < labelCount; l++) {
+            int i = l * 3;
+            float x = labelCoords[i], y = labelCoords[i + 1];
+            String text = labelTexts[l];
+            LABEL_MATRIX.translation(0.0f, 0.0f, labelCoords[i + 2]);
+
+            // Shitty outline (Notch did it first!)
+            int outlineColor = labelOutlineColors[l];
+            if(outlineColor != NO_OUTLINE) {
+                drawLabel(textRenderer, immediate, text, x + 1, y, outlineColor);
+                drawLabel(textRenderer, immediate, text, x - 1, y, outlineColor);
+                drawLabel(textRenderer, immediate, text, x, y + 1, outlineColor);
+                drawLabel(textRenderer, immediate, text, x, y - 1, outlineColor);
+            }
+
+            drawLabel(textRenderer, immediate, text, x, y, labelColors[l]);
+            labelTexts[l] = null;
+        }
+
+        RenderSystem.enableDepthTest();
+        immediate.draw();
+
+        fillCount = 0;
+        labelCount = 0;
+    }
+
+    private static void drawLabel(TextRenderer textRenderer, VertexConsumerProvider vertexConsumers, String text, float x, float y, int color) {
+        textRenderer.draw(text, x, y, color | 0xFF000000, false, LABEL_MATRIX, vertexConsumers, TextRenderer.TextLayerType.NORMAL, 0, LightmapTextureManager.MAX_LIGHT_COORDINATE);
+    }
+}
@@ -0,0 +1,174 @@
+package dev.jb0s.blockgameenhanced.gui;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.systems.VertexSorter;
+import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gl.SimpleFramebuffer;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.GameRenderer;
+import net.minecraft.client.render.Tessellator;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import org.joml.Matrix4f;
+
+import java.util.function.Consumer;
+
+/**
+ * A rectangle of the HUD that is rendered into an offscreen framebuffer, and from then on drawn with a single blit per
+ * frame until its owner marks it dirty. Meant for parts of the HUD that take many draw calls but rarely change.
+ * The layer is also rebuilt when the rectangle moves or the GUI scale changes.
+ * If the framebuffer can't be created (some drivers don't like them), the layer gives up for the rest of the session
+ * and its owner is expected to draw the contents directly instead.
+ */
+public class OffscreenHudLayer {
+    private final String name;
+
+    private SimpleFramebuffer framebuffer;
+    private boolean isBroken;
+    private boolean isDirty = true;
+
+    // The rectangle and GUI scale the framebuffer contents were drawn for
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+    private double scaleFactor;
+
+    /**
+     * @param name Name of the layer, used when logging.
+     */
+    public OffscreenHudLayer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return False if offscreen rendering failed on this machine, in which case the contents should be drawn directly.
+     */
+    public boolean isAvailable() {
+        return !isBroken;
+    }
+
+    /**
+     * Makes the next draw render the contents again.
+     */
+    public void markDirty() {
+        isDirty = true;
+    }
+
+    /**
+     * Draws the layer, rendering its contents into the framebuffer first if they're outdated.
+     * @param context The draw context of the HUD.
+     * @param x X-Position of the layer, in GUI coordinates.
+     * @param y Y-Position of the layer, in GUI coordinates.
+     * @param width Width of the layer, in GUI coordinates.
+     * @param height Height of the layer, in GUI coordinates.
+     * @param renderer Draws the contents of the layer in regular GUI coordinates. Anything outside the rectangle is cut off.
+     *                 Anything it blends has to use (SRC_ALPHA, ONE_MINUS_SRC_ALPHA, ONE, ONE_MINUS_SRC_ALPHA), and opaque
+     *                 textures should be drawn with blending on too, or the layer ends up translucent.
+     * @return False if the layer is unavailable and nothing was drawn.
+     */
+    public boolean draw(DrawContext context, int x, int y, int width, int height, Consumer<DrawContext> renderer) {
+        if(isBroken) {
+            return false;
+        }
+        if(width <= 0 || height <= 0) {
+            return true;
+        }
+
+        double scale = MinecraftClient.getInstance().getWindow().getScaleFactor();
+        if(isDirty || x != this.x || y != this.y || width != this.width || height != this.height || scale != scaleFactor) {
+            if(!rebuild(context, x, y, width, height, scale, renderer)) {
+                return false;
+            }
+        }
+
+        composite(context);
+        return true;
+    }
+
+    /**
+     * Frees the framebuffer. The layer is rebuilt if it's drawn again.
+     */
+    public void release() {
+        if(framebuffer != null) {
+            framebuffer.delete();
+            framebuffer = null;
+        }
+
+        isDirty = true;
+    }
+
+    private boolean rebuild(DrawContext context, int x, int y, int width, int height, double scale, Consumer<DrawContext> renderer) {
+        MinecraftClient client = MinecraftClient.getInstance();
+        int pixelWidth = (int) Math.ceil(width * scale);
+        int pixelHeight = (int) Math.ceil(height * scale);
+
+        try {
+            if(framebuffer == null) {
+                framebuffer = new SimpleFramebuffer(pixelWidth, pixelHeight, true, MinecraftClient.IS_SYSTEM_MAC);
+                framebuffer.setClearColor(0.0f, 0.0f, 0.0f, 0.0f);
+            }
+            else if(framebuffer.textureWidth != pixelWidth || framebuffer.textureHeight != pixelHeight) {
+                framebuffer.resize(pixelWidth, pixelHeight, MinecraftClient.IS_SYSTEM_MAC);
+            }
+        }
+        catch (Exception e) {
+            BlockgameEnhanced.LOGGER.warn("Offscreen rendering of {} is not available, drawing it directly instead: {}", name, e.getMessage());
+            release();
+            isBroken = true;
+            return false;
+        }
+
+        // Anything the HUD still has queued belongs on the main framebuffer
+        context.draw();
+
+        Matrix4f projection = RenderSystem.getProjectionMatrix();
+        VertexSorter vertexSorting = RenderSystem.getVertexSorting();
+
+        framebuffer.clear(MinecraftClient.IS_SYSTEM_MAC);
+        framebuffer.beginWrite(true);
+        RenderSystem.setProjectionMatrix(new Matrix4f().setOrtho(x, x + width, y + height, y, 1000.0f, 21000.0f), VertexSorter.BY_Z);
+
+        renderer.accept(context);
+        context.draw();
+
+        RenderSystem.setProjectionMatrix(projection, vertexSorting);
+        client.getFramebuffer().beginWrite(true);
+
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        scaleFactor = scale;
+        isDirty = false;
+        return true;
+    }
+
+    private void composite(DrawContext context) {
+        RenderSystem.setShader(GameRenderer::getPositionTexProgram);
+        RenderSystem.setShaderTexture(0, framebuffer.getColorAttachment());
+        RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, 1.0f);
+
+        // The contents were blended onto a transparent background with alpha added up separately (see draw), which leaves
+        // their colors premultiplied
+        RenderSystem.enableBlend();
+        RenderSystem.blendFunc(GlStateManager.SrcFactor.ONE, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA);
+
+        // Framebuffers are stored bottom-up, so the texture is flipped vertically
+        Matrix4f pose = context.getMatrices().peek().getPositionMatrix();
+        Tessellator tessellator = Tessellator.getInstance();
+        BufferBuilder bufferBuilder = tessellator.getBuffer();
+        bufferBuilder.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE);
+        bufferBuilder.vertex(pose, x, y, 0.0f).texture(0.0f, 1.0f).next();
+        bufferBuilder.vertex(pose, x, y + height, 0.0f).texture(0.0f, 0.0f).next();
+        bufferBuilder.vertex(pose, x + width, y + height, 0.0f).texture(1.0f, 0.0f).next();
+        bufferBuilder.vertex(pose, x + width, y, 0.0f).texture(1.0f, 1.0f).next();
+        tessellator.draw();
+
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.disableBlend();
+    }
+}
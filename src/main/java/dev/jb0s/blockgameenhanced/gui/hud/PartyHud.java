@@ -3,12 +3,14 @@ package dev.jb0s.blockgameenhanced.gui.hud;
 import com.mojang.blaze3d.platform.GlStateManager;
 import com.mojang.blaze3d.systems.RenderSystem;
 import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
+import dev.jb0s.blockgameenhanced.BlockgameEnhancedClient;
 import dev.jb0s.blockgameenhanced.event.gamefeature.party.PartyPingEvent;
 import dev.jb0s.blockgameenhanced.event.gamefeature.party.PartyUpdatedEvent;
 import dev.jb0s.blockgameenhanced.gamefeature.party.PartyGameFeature;
+import dev.jb0s.blockgameenhanced.gui.CachedText;
+import dev.jb0s.blockgameenhanced.gui.OffscreenHudLayer;
 import dev.jb0s.blockgameenhanced.helper.DebugHelper;
 import dev.jb0s.blockgameenhanced.helper.MathHelper;
-import dev.jb0s.blockgameenhanced.helper.TimeHelper;
 import dev.jb0s.blockgameenhanced.gamefeature.party.PartyMember;
 import dev.jb0s.blockgameenhanced.gamefeature.party.PartyPing;
 import net.fabricmc.api.EnvType;
@@ -16,12 +18,12 @@ import net.fabricmc.api.Environment;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.network.ClientPlayerEntity;
-import net.minecraft.text.Text;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.*;
 import org.joml.Vector3f;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 
 @Environment(value = EnvType.CLIENT)
@@ -38,12 +40,23 @@ public class PartyHud {
     private static final int MEMBER_CARD_PADDING = 5;
     private static final int MEMBER_CARD_SPACING = 5;
     private static final int MEMBER_CARD_BACKGROUND_SIZE = 32;
-    private static final int OUT_OF_RANGE_THRESHOLD = 2;
+    private static final int OUT_OF_RANGE_THRESHOLD_TICKS = 60;
+    private static final String OUT_OF_RANGE_TEXT = "OUT OF RANGE";
 
     private static MinecraftClient client;
     private static ArrayList<PartyMember> partyMembers;
     private static HashMap<PartyMember, PartyPing> partyPings;
 
+    // Labels that are drawn every frame, rebuilt only when what they show changes
+    private static final CachedText outOfRangeLabel = new CachedText();
+    private static final HashMap<PartyMember, CachedText> pingLabels = new HashMap<>();
+
+    // Member cards only change when the party or someone's health does, so they're drawn from an offscreen copy
+    private static final OffscreenHudLayer memberCardLayer = new OffscreenHudLayer("party member cards");
+    private static int[] memberCardHealth = new int[16];
+    private static Identifier[] memberCardSkins = new Identifier[8];
+    private static int memberCardCount;
+
     public static void render(DrawContext context, float tickDelta) {
         timer += tickDelta;
         if(client == null) {
@@ -69,18 +82,32 @@ public class PartyHud {
             return;
         }*/
 
-        int indexOffset = 0;
-        for (int i = 0; i < partyMembers.size(); i++) {
-            boolean allowRenderSelf = BlockgameEnhanced.getConfig().getPartyHudConfig().showSelf;
-            String sessionPlayerName = client.getSession().getUsername();
+        if(client.world == null) {
+            return;
+        }
 
-            // If we're trying to render our own stats and that's not allowed, don't do so
-            if(partyMembers.get(i).getPlayerName().equals(sessionPlayerName) && !allowRenderSelf) {
-                indexOffset--; // hack to fix list positioning
-                continue;
+        boolean hasCardsChanged = updateMemberCardState();
+        boolean isCardLayerDrawn = false;
+        if(BlockgameEnhanced.getConfig().getPartyHudConfig().cacheMemberCards && memberCardLayer.isAvailable()) {
+            if(hasCardsChanged) {
+                memberCardLayer.markDirty();
             }
 
-            renderPartyMember(context, partyMembers.get(i), i + indexOffset);
+            int height = memberCardCount * (MEMBER_CARD_HEIGHT + MEMBER_CARD_SPACING) - MEMBER_CARD_SPACING;
+            isCardLayerDrawn = memberCardLayer.draw(context, MEMBER_CARD_MARGIN, MEMBER_CARD_MARGIN, MEMBER_CARD_WIDTH, height, PartyHud::renderMemberCards);
+        }
+
+        // Fall back to drawing the cards directly if the layer is turned off or not supported
+        if(!isCardLayerDrawn) {
+            renderMemberCards(context);
+        }
+
+        // Blackouts blink, so they are always drawn on top of the cards
+        int index = 0;
+        for (int i = 0; i < partyMembers.size(); i++) {
+            if(!isMemberHidden(partyMembers.get(i))) {
+                renderMemberBlackout(context, partyMembers.get(i), index++);
+            }
         }
 
         if(partyPings != null) {
@@ -96,12 +123,69 @@ public class PartyHud {
 
     private static void onPartyUpdate(PartyGameFeature partyGameFeature) {
         partyMembers = partyGameFeature.getPartyMembers();
+        memberCardLayer.markDirty();
+
+        // Forget the ping labels of anyone who left
+        if(partyMembers == null) {
+            pingLabels.clear();
+            memberCardLayer.release();
+        }
+        else {
+            pingLabels.keySet().retainAll(partyMembers);
+        }
     }
 
-    private static void renderPartyMember(DrawContext context, PartyMember member, int index) {
-        if(client.world == null)
-            return;
+    /**
+     * If we're trying to render our own stats and that's not allowed, don't do so.
+     */
+    private static boolean isMemberHidden(PartyMember member) {
+        return !BlockgameEnhanced.getConfig().getPartyHudConfig().showSelf && member.getPlayerName().equals(client.getSession().getUsername());
+    }
+
+    /**
+     * Remembers what the member cards currently show.
+     * @return Whether anything changed since the last call, meaning the cards have to be drawn again.
+     */
+    private static boolean updateMemberCardState() {
+        boolean hasChanged = false;
+        int count = 0;
+
+        for (int i = 0; i < partyMembers.size(); i++) {
+            PartyMember member = partyMembers.get(i);
+            if(isMemberHidden(member)) {
+                continue;
+            }
+
+            if(count == memberCardSkins.length) {
+                memberCardSkins = Arrays.copyOf(memberCardSkins, count * 2);
+                memberCardHealth = Arrays.copyOf(memberCardHealth, count * 4);
+            }
+
+            // Skins load in the background, so a member can get their skin after their card was drawn
+            Identifier skin = member.getPlayer().getSkinTextures().texture();
+            hasChanged |= memberCardHealth[count * 2] != member.getHealth() || memberCardHealth[count * 2 + 1] != member.getMaxHealth() || memberCardSkins[count] != skin;
 
+            memberCardHealth[count * 2] = member.getHealth();
+            memberCardHealth[count * 2 + 1] = member.getMaxHealth();
+            memberCardSkins[count] = skin;
+            count++;
+        }
+
+        hasChanged |= count != memberCardCount;
+        memberCardCount = count;
+        return hasChanged;
+    }
+
+    private static void renderMemberCards(DrawContext context) {
+        int index = 0;
+        for (int i = 0; i < partyMembers.size(); i++) {
+            if(!isMemberHidden(partyMembers.get(i))) {
+                renderMemberCard(context, partyMembers.get(i), index++);
+            }
+        }
+    }
+
+    private static void renderMemberCard(DrawContext context, PartyMember member, int index) {
         int x = MEMBER_CARD_MARGIN;
         int yIncrement = MEMBER_CARD_MARGIN + ((MEMBER_CARD_HEIGHT + MEMBER_CARD_SPACING) * index);
 
@@ -109,6 +193,9 @@ public class PartyHud {
         int contentY = yIncrement + MEMBER_CARD_PADDING;
         int headSize = MEMBER_CARD_HEIGHT - (MEMBER_CARD_PADDING * 2);
 
+        // Everything is blended, so that the cards come out the same whether they're drawn directly or into memberCardLayer
+        enableCardBlending();
+
         // Draw Background
         boolean isBedrockPlayer = member.getPlayerName().startsWith(".");
         RenderSystem.setShaderTexture(0, isBedrockPlayer ? BACKGROUND_TEXTURE_BEDROCK : BACKGROUND_TEXTURE);
@@ -116,23 +203,19 @@ public class PartyHud {
         context.drawTexture(isBedrockPlayer ? BACKGROUND_TEXTURE_BEDROCK : BACKGROUND_TEXTURE, x, yIncrement, 0, 0, 0, MEMBER_CARD_WIDTH, MEMBER_CARD_HEIGHT, MEMBER_CARD_BACKGROUND_SIZE, MEMBER_CARD_BACKGROUND_SIZE);
 
         // Draw Vignette
-        RenderSystem.enableBlend();
-        RenderSystem.blendFunc(GlStateManager.SrcFactor.SRC_ALPHA, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA);
         RenderSystem.setShaderTexture(0, VIGNETTE_TEXTURE);
         RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, .4f);
         context.drawTexture(VIGNETTE_TEXTURE, x, yIncrement, 0, 0, 0, MEMBER_CARD_WIDTH, MEMBER_CARD_HEIGHT, MEMBER_CARD_WIDTH, MEMBER_CARD_HEIGHT);
-        RenderSystem.disableBlend();
 
         // Player Head
-        RenderSystem.enableBlend();
         RenderSystem.setShaderTexture(0, member.getPlayer().getSkinTextures().texture());
         RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, 1f);
         context.drawTexture(member.getPlayer().getSkinTextures().texture(), contentX, contentY, headSize, headSize, 8.0f, 8.0f, 8, 8, 64, 64);
         context.drawTexture(member.getPlayer().getSkinTextures().texture(), contentX, contentY, headSize, headSize, 40.0f, 8.0f, 8, 8, 64, 64);
-        RenderSystem.disableBlend();
 
-        // Draw Name
-        context.drawTextWithShadow(client.textRenderer, Text.of(member.getPlayerName()), contentX + headSize + 5, contentY, 0xFFFFFF);
+        // Draw Name, text turns blending off again once it's drawn
+        context.drawTextWithShadow(client.textRenderer, member.getPlayerName(), contentX + headSize + 5, contentY, 0xFFFFFF);
+        enableCardBlending();
 
         // Health bar Atlas Dimensions
         int textureWidth = 192;
@@ -146,23 +229,42 @@ public class PartyHud {
         context.drawTexture(HEALTHBARS_TEXTURE, contentX + headSize + 16, contentY + client.textRenderer.fontHeight + 1, textureWidth / 2, 7, 0, 32, textureWidth, 14, textureWidth, textureHeight);
         context.drawTexture(HEALTHBARS_TEXTURE, contentX + headSize + 16, contentY + client.textRenderer.fontHeight + 1, (int) ((textureWidth / 2) * calculatedPercentage), 7, 0, 18, (int) (textureWidth * calculatedPercentage), 14, textureWidth, textureHeight);
 
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.disableBlend();
+    }
+
+    /**
+     * Blends colors as usual, but also adds up alpha instead of overwriting it. Cards drawn into memberCardLayer would
+     * otherwise end up as translucent as whatever was drawn on them last.
+     */
+    private static void enableCardBlending() {
+        RenderSystem.enableBlend();
+        RenderSystem.blendFuncSeparate(GlStateManager.SrcFactor.SRC_ALPHA, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA, GlStateManager.SrcFactor.ONE, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA);
+    }
+
+    private static void renderMemberBlackout(DrawContext context, PartyMember member, int index) {
+        int x = MEMBER_CARD_MARGIN;
+        int yIncrement = MEMBER_CARD_MARGIN + ((MEMBER_CARD_HEIGHT + MEMBER_CARD_SPACING) * index);
+
         // Dead / Out Of Range Blackout
-        boolean isOutOfRange = TimeHelper.getSystemTimeUnix() - member.getLastUpdateSecond() > OUT_OF_RANGE_THRESHOLD;
+        // Measured in server ticks, so a lagging server doesn't make the whole party look out of range
+        boolean isOutOfRange = BlockgameEnhancedClient.getServerClock().getCurrentTick() - member.getLastUpdateTick() > OUT_OF_RANGE_THRESHOLD_TICKS;
         boolean blackOut = isOutOfRange || !member.isAlive();
         if(blackOut) {
             RenderSystem.enableBlend();
             context.fill(x, yIncrement, x + MEMBER_CARD_WIDTH, yIncrement + MEMBER_CARD_HEIGHT, 135 << 24);
 
             if(isOutOfRange && member.isAlive()) {
-                Text oorText = Text.of("OUT OF RANGE");
-                int centerX = x + (MEMBER_CARD_WIDTH / 2) - (client.textRenderer.getWidth(oorText) / 2);
+                outOfRangeLabel.update(OUT_OF_RANGE_TEXT, 0, (text, value) -> text, client.textRenderer);
+
+                int centerX = x + (MEMBER_CARD_WIDTH / 2) - (outOfRangeLabel.getWidth() / 2);
                 int centerY = yIncrement + (MEMBER_CARD_HEIGHT / 2) - (client.textRenderer.fontHeight / 2);
                 int textColor = 0xFFFFFF;
                 if(timer % 120 >= 60) {
                     textColor = 0xC4C4C4;
                 }
 
-                context.drawTextWithShadow(client.textRenderer, Text.of("OUT OF RANGE"), centerX, centerY, textColor);
+                context.drawTextWithShadow(client.textRenderer, outOfRangeLabel.getText(), centerX, centerY, textColor);
             }
 
             RenderSystem.disableBlend();
@@ -195,26 +297,34 @@ public class PartyHud {
         context.getMatrices().translate((pos.x() / uiScale), (pos.y() / uiScale), 0);
         context.getMatrices().scale(size, size, 1f);
 
-        // Calculate ping label text and size
-        String labelText = String.format("%s - %dm", ping.getPartyMember().getPlayerName(), (int) distanceToPing);
-        var labelSize = new Vec2f(MinecraftClient.getInstance().textRenderer.getWidth(labelText), MinecraftClient.getInstance().textRenderer.fontHeight);
-        var labelOffset = labelSize.multiply(-0.5f).add(new Vec2f(0f, labelSize.y * -1.5f));
+        // Calculate ping label text and size, the text only changes when the distance crosses a whole meter
+        CachedText label = pingLabels.computeIfAbsent(ping.getPartyMember(), x -> new CachedText());
+        String playerName = ping.getPartyMember().getPlayerName();
+        int distanceMeters = (int) distanceToPing;
+        label.update(playerName, distanceMeters, (name, meters) -> String.format("%s - %dm", name, meters), MinecraftClient.getInstance().textRenderer);
+
+        // The label is centered on the ping horizontally, and sits two lines above it
+        String labelText = label.getText();
+        int labelWidth = label.getWidth();
+        int labelHeight = MinecraftClient.getInstance().textRenderer.fontHeight;
+        float labelOffsetX = labelWidth * -0.5f;
+        float labelOffsetY = labelHeight * -2.0f;
 
         // Draw player head
         context.getMatrices().push();
-        context.getMatrices().translate(labelOffset.x + ((labelOffset.y / 2) + 3), labelOffset.y, 0);
+        context.getMatrices().translate(labelOffsetX + ((labelOffsetY / 2) + 3), labelOffsetY, 0);
         RenderSystem.enableBlend();
         RenderSystem.setShaderTexture(0, ping.getPartyMember().getPlayer().getSkinTextures().texture());
         RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, 1f);
-        context.drawTexture(ping.getPartyMember().getPlayer().getSkinTextures().texture(), -2, -2, (int)labelSize.y + 2, (int)labelSize.y + 2, 8.0f, 8.0f, 8, 8, 64, 64);
-        context.drawTexture(ping.getPartyMember().getPlayer().getSkinTextures().texture(), -2, -2, (int)labelSize.y + 2, (int)labelSize.y + 2, 40.0f, 8.0f, 8, 8, 64, 64);
+        context.drawTexture(ping.getPartyMember().getPlayer().getSkinTextures().texture(), -2, -2, labelHeight + 2, labelHeight + 2, 8.0f, 8.0f, 8, 8, 64, 64);
+        context.drawTexture(ping.getPartyMember().getPlayer().getSkinTextures().texture(), -2, -2, labelHeight + 2, labelHeight + 2, 40.0f, 8.0f, 8, 8, 64, 64);
         RenderSystem.disableBlend();
         context.getMatrices().pop();
 
         // Draw text
         context.getMatrices().push();
-        context.getMatrices().translate(labelOffset.x - ((labelOffset.y / 2) + 3), labelOffset.y, 0);
-        context.fill(-2, -2, (int)labelSize.x + 1, (int)labelSize.y, 0x77000000);
+        context.getMatrices().translate(labelOffsetX - ((labelOffsetY / 2) + 3), labelOffsetY, 0);
+        context.fill(-2, -2, labelWidth + 1, labelHeight, 0x77000000);
         context.drawText(MinecraftClient.getInstance().textRenderer, labelText, 0, 0, 0xFFFFFFFF, false);
         context.getMatrices().pop();
 
@@ -0,0 +1,148 @@
+package dev.jb0s.blockgameenhanced.gui.hud.immersive.widget;
+
+import dev.jb0s.blockgameenhanced.helper.DebugHelper;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.gui.hud.InGameHud;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Stacks child widgets on top of each other, one child per key, in the order they were added.
+ * The layout is retained: child offsets and the size of the stack are only recomputed after the stack was marked dirty,
+ * e.g. because a child was added, removed or resized. Rendering replays the cached offsets.
+ * Children expire and are removed on tick, never while rendering.
+ */
+public abstract class ImmersiveStackedWidget<K, T extends ImmersiveWidget> extends ImmersiveWidget {
+    private final HashMap<K, T> childrenByKey = new HashMap<>();
+    private final ArrayList<K> keys = new ArrayList<>();
+    private final ArrayList<T> children = new ArrayList<>();
+
+    private final Alignment alignment;
+    private final int spacing;
+    private final boolean growsUpward;
+
+    // Offset of every child relative to the position the stack is rendered at, x and y per child
+    private int[] offsets = new int[16];
+    private int width;
+    private int height;
+
+    /**
+     * @param inGameHud The HUD this widget belongs to.
+     * @param alignment Where the children go horizontally, relative to the X-Position the stack is rendered at.
+     * @param spacing Space between two children, in pixels.
+     * @param growsUpward Whether children are stacked upwards from the Y-Position the stack is rendered at, rather than downwards.
+     */
+    protected ImmersiveStackedWidget(InGameHud inGameHud, Alignment alignment, int spacing, boolean growsUpward) {
+        super(inGameHud);
+        this.alignment = alignment;
+        this.spacing = spacing;
+        this.growsUpward = growsUpward;
+    }
+
+    @Override
+    public void render(DrawContext context, int x, int y, float tickDelta) {
+        updateLayout();
+
+        for (int i = 0; i < children.size(); i++) {
+            children.get(i).render(context, x + offsets[i * 2], y + offsets[i * 2 + 1], tickDelta);
+        }
+    }
+
+    @Override
+    public void tick() {
+        DebugHelper.assertOnClientThread("Widget stack");
+        if(children.isEmpty()) {
+            return;
+        }
+
+        for (int i = children.size() - 1; i >= 0; i--) {
+            if(isExpired(children.get(i))) {
+                childrenByKey.remove(keys.remove(i));
+                children.remove(i);
+                markDirty();
+            }
+        }
+
+        for (int i = 0; i < children.size(); i++) {
+            children.get(i).tick();
+        }
+    }
+
+    @Override
+    public int getWidth() {
+        updateLayout();
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        updateLayout();
+        return height;
+    }
+
+    @Override
+    protected void layout() {
+        if(offsets.length < children.size() * 2) {
+            offsets = Arrays.copyOf(offsets, Math.max(offsets.length * 2, children.size() * 2));
+        }
+
+        int stackWidth = 0;
+        int stackHeight = 0;
+        for (int i = 0; i < children.size(); i++) {
+            T child = children.get(i);
+            int childWidth = child.getWidth();
+
+            offsets[i * 2] = switch (alignment) {
+                case LEFT -> 0;
+                case CENTER -> -(childWidth / 2);
+                case RIGHT -> -childWidth;
+            };
+            offsets[i * 2 + 1] = growsUpward ? -stackHeight : stackHeight;
+
+            stackWidth = Math.max(stackWidth, childWidth);
+            stackHeight += child.getHeight() + spacing;
+        }
+
+        width = stackWidth;
+        height = stackHeight;
+    }
+
+    /**
+     * Gets the child that was added for a key.
+     * @param key The key of the child.
+     * @return The child, null if there is none.
+     */
+    protected T getChild(K key) {
+        return childrenByKey.get(key);
+    }
+
+    /**
+     * Adds a child to the end of the stack.
+     * @param key The key of the child.
+     * @param child The child.
+     */
+    protected void addChild(K key, T child) {
+        DebugHelper.assertOnClientThread("Widget stack");
+
+        child.setParent(this);
+        childrenByKey.put(key, child);
+        keys.add(key);
+        children.add(child);
+        markDirty();
+    }
+
+    /**
+     * Whether a child is done and should be removed from the stack. Checked every tick.
+     * @param child The child.
+     * @return True if the child should be removed.
+     */
+    protected abstract boolean isExpired(T child);
+
+    public enum Alignment {
+        LEFT,
+        CENTER,
+        RIGHT
+    }
+}
@@ -12,6 +12,10 @@ public class ImmersiveWidget {
     @Getter
     private InGameHud inGameHud;
 
+    // The widget this widget is laid out in, if any
+    private ImmersiveWidget parent;
+    private boolean isLayoutDirty = true;
+
     public ImmersiveWidget(InGameHud inGameHud) {
         this.inGameHud = inGameHud;
     }
@@ -32,6 +36,37 @@ public class ImmersiveWidget {
     public void tick() {
     }
 
+    /**
+     * Marks the layout of this widget as outdated, and with it the layout of every widget it's contained in.
+     * Widgets call this whenever something that affects their size or contents changes.
+     */
+    protected void markDirty() {
+        isLayoutDirty = true;
+        if(parent != null) {
+            parent.markDirty();
+        }
+    }
+
+    /**
+     * Runs the layout pass if the widget was marked dirty since the last one. Cheap to call every frame.
+     */
+    protected final void updateLayout() {
+        if(isLayoutDirty) {
+            isLayoutDirty = false;
+            layout();
+        }
+    }
+
+    /**
+     * Measures this widget and positions its contents, caching the results for rendering. Only runs when the widget is dirty.
+     */
+    protected void layout() {
+    }
+
+    void setParent(ImmersiveWidget parent) {
+        this.parent = parent;
+    }
+
     public int getWidth() {
         return 70;
     }
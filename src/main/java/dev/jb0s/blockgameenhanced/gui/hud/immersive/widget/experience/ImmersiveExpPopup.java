@@ -4,12 +4,12 @@ import com.mojang.blaze3d.systems.RenderSystem;
 import dev.jb0s.blockgameenhanced.gui.hud.immersive.widget.ImmersiveWidget;
 import dev.jb0s.blockgameenhanced.gamefeature.mmostats.MMOProfession;
 import lombok.Getter;
-import lombok.Setter;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.hud.InGameHud;
 import net.minecraft.client.render.GameRenderer;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.math.MathHelper;
 
 public class ImmersiveExpPopup extends ImmersiveWidget {
     private static final Identifier EXPBARS_TEXTURE = new Identifier("blockgame", "textures/gui/hud/expbars.png");
@@ -18,27 +18,35 @@ public class ImmersiveExpPopup extends ImmersiveWidget {
     private MMOProfession mmoProfession;
 
     @Getter
-    @Setter
     private float percentage;
 
     @Getter
-    @Setter
     private float gained;
 
     @Getter
-    @Setter
     private int inactivityTicks;
 
+    // Opacity at the start of the current and the next tick, interpolated between while rendering
+    private float prevAlpha;
+    private float alpha;
+
+    // Label and where it goes, only rebuilt in the layout pass after the numbers changed
+    private String text;
+    private int textX;
+    private int barWidth;
+
     public ImmersiveExpPopup(InGameHud inGameHud, MMOProfession profession, float percentage, float gained) {
         super(inGameHud);
         mmoProfession = profession;
         setPercentage(percentage);
         setGained(gained);
+        setInactivityTicks(0);
     }
 
     @Override
     public void render(DrawContext context, int x, int y, float tickDelta) {
-        float alpha = (inactivityTicks + tickDelta) < 100 ? 1.0f : 1.0f - (((inactivityTicks + tickDelta) - 100.0f) / 21.f);
+        updateLayout();
+        float alpha = MathHelper.lerp(tickDelta, prevAlpha, this.alpha);
 
         RenderSystem.enableBlend();
         RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, alpha);
@@ -46,16 +54,11 @@ public class ImmersiveExpPopup extends ImmersiveWidget {
         RenderSystem.setShaderTexture(0, EXPBARS_TEXTURE);
 
         // Draw bar
-        int w = (int)((percentage / 100.f) * getWidth());
         drawTexture(context, x, y + (getHeight() - 5), 0, 0, getWidth(), 5);
-        drawTexture(context, x, y + (getHeight() - 5), 0, 5 * getMmoProfession().getIndex(), w, 5);
+        drawTexture(context, x, y + (getHeight() - 5), 0, 5 * getMmoProfession().getIndex(), barWidth, 5);
 
         // Draw text
-        TextRenderer textRenderer = getInGameHud().client.textRenderer;
-        String string = String.format("§a+%d %s §7- §a%.2f%%", (int) getGained(), getMmoProfession().getDisplayName(), percentage);
-        int tx = x + ((getWidth() / 2) - (textRenderer.getWidth(string) / 2));
-
-        context.drawText(getInGameHud().getTextRenderer(), string, tx, y, 0xFFFFFF + ((int)(alpha * 255) << 24), true);
+        context.drawText(getInGameHud().getTextRenderer(), text, x + textX, y, 0xFFFFFF + ((int)(alpha * 255) << 24), true);
         RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, 1.0f);
         RenderSystem.disableBlend();
     }
@@ -63,6 +66,30 @@ public class ImmersiveExpPopup extends ImmersiveWidget {
     @Override
     public void tick() {
         inactivityTicks++;
+        updateAlpha();
+    }
+
+    @Override
+    protected void layout() {
+        TextRenderer textRenderer = getInGameHud().getTextRenderer();
+        text = String.format("§a+%d %s §7- §a%.2f%%", (int) getGained(), getMmoProfession().getDisplayName(), percentage);
+        textX = (getWidth() / 2) - (textRenderer.getWidth(text) / 2);
+        barWidth = (int)((percentage / 100.f) * getWidth());
+    }
+
+    public void setPercentage(float percentage) {
+        this.percentage = percentage;
+        markDirty();
+    }
+
+    public void setGained(float gained) {
+        this.gained = gained;
+        markDirty();
+    }
+
+    public void setInactivityTicks(int inactivityTicks) {
+        this.inactivityTicks = inactivityTicks;
+        updateAlpha();
     }
 
     @Override
@@ -83,6 +110,18 @@ public class ImmersiveExpPopup extends ImmersiveWidget {
         setGained(getGained() + gained);
     }
 
+    /**
+     * Fully visible for 100 ticks, then fades out over the next 21.
+     */
+    private void updateAlpha() {
+        prevAlpha = getAlpha(inactivityTicks);
+        alpha = getAlpha(inactivityTicks + 1);
+    }
+
+    private static float getAlpha(int ticks) {
+        return ticks < 100 ? 1.0f : 1.0f - ((ticks - 100.0f) / 21.f);
+    }
+
     /**
      * Helper function to call InGameHud.drawTexture with our custom texture dimensions.
      * @param context the context of the drawing of the pixels
@@ -7,20 +7,31 @@ import dev.jb0s.blockgameenhanced.event.gamefeature.mmostats.MMOStatsUpdatedEven
 import dev.jb0s.blockgameenhanced.gamefeature.mmostats.MMOStatsGameFeature;
 import dev.jb0s.blockgameenhanced.gui.hud.immersive.widget.ImmersiveWidget;
 import dev.jb0s.blockgameenhanced.config.modules.IngameHudConfig;
+import dev.jb0s.blockgameenhanced.gui.CachedText;
+import dev.jb0s.blockgameenhanced.gui.GuiSpriteBatch;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.hud.InGameHud;
 import net.minecraft.client.network.ClientPlayerEntity;
-import net.minecraft.client.render.GameRenderer;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.effect.StatusEffects;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.profiler.Profiler;
 
 public class ImmersiveDiabloHotbar extends ImmersiveWidget {
     private static final Identifier WIDGETS_TEXTURE = new Identifier("blockgame", "textures/gui/hud/widgets.png");
 
+    private final GuiSpriteBatch sprites = new GuiSpriteBatch(WIDGETS_TEXTURE, 297, 263);
+
+    // Gauge and meter labels, only rebuilt when the number they show changes
+    private final CachedText healthText = new CachedText();
+    private final CachedText vehicleHealthText = new CachedText();
+    private final CachedText hungerText = new CachedText();
+    private final CachedText hydrationText = new CachedText();
+    private final CachedText levelText = new CachedText();
+
     private int health;
     private int maxHealth;
     private int hunger;
@@ -60,48 +71,57 @@ public class ImmersiveDiabloHotbar extends ImmersiveWidget {
         boolean hasVehicle = playerEntity.hasVehicle() && playerEntity.getVehicle() instanceof LivingEntity;
 
         // Prepare for drawing
-        getInGameHud().client.getProfiler().push("immersiveHotbar");
-        resetShaders();
+        Profiler profiler = getInGameHud().client.getProfiler();
+        profiler.push("immersiveHotbar");
 
-        // Draw frame
         int frameX = x - getWidth() / 2;
         int frameY = y - getHeight();
-        drawFrame(context, frameX, frameY, hasVehicle);
-
-        // Draw gauges (This isn't even the right word for it LMAO)
-        drawHealthGauge(context, frameX + 4, frameY + 4, playerEntity);
-        drawAirGauge(context, frameX + getWidth() + 13, frameY + 3, playerEntity);
-        if(!hasVehicle || !(playerEntity.getVehicle() instanceof LivingEntity vehicle)) {
-            drawHydrationGauge(context, frameX + 278, frameY + 4);
-            drawHungerGauge(context, frameX + 261, frameY + 4);
-        }
-        else {
-            drawVehicleHealthGauge(context, frameX + 261, frameY + 4, vehicle);
-        }
 
-        // Draw statues
-        drawStatue(context, (x - (getWidth() / 2)) - 11, y - 49, false);
-        drawStatue(context, (x + (getWidth() / 2)) - 11, y - 49, true);
+        // Everything that goes below the items is queued up and drawn as one batch of sprites, with all of the text
+        // going into a single text batch that is drawn on top of it once this block is done
+        context.draw(() -> {
+            // Draw frame
+            drawFrame(context, frameX, frameY, hasVehicle);
+
+            // Draw gauges (This isn't even the right word for it LMAO)
+            drawHealthGauge(context, frameX + 4, frameY + 4, playerEntity);
+            drawAirGauge(context, frameX + getWidth() + 13, frameY + 3, playerEntity);
+            if(!hasVehicle || !(playerEntity.getVehicle() instanceof LivingEntity vehicle)) {
+                drawHydrationGauge(context, frameX + 278, frameY + 4);
+                drawHungerGauge(context, frameX + 261, frameY + 4);
+            }
+            else {
+                drawVehicleHealthGauge(context, frameX + 261, frameY + 4, vehicle);
+            }
+
+            // Draw statues
+            drawStatue(context, (x - (getWidth() / 2)) - 11, y - 49, false);
+            drawStatue(context, (x + (getWidth() / 2)) - 11, y - 49, true);
 
-        // Draw misc. widgets
-        drawLatencyMeter(context, frameX + 66, frameY + 19);
-        if (!hasVehicle) drawExperienceBar(context, frameX + 48, frameY + 11, playerEntity);
-        else drawMountJumpBar(context, frameX + 48, frameY + 11, (ClientPlayerEntity) playerEntity);
-        drawLevelMeter(context, frameX + 34, frameY - 7, playerEntity);
+            // Draw misc. widgets
+            drawLatencyMeter(context, frameX + 66, frameY + 19);
+            if (!hasVehicle) drawExperienceBar(context, frameX + 48, frameY + 11, playerEntity);
+            else drawMountJumpBar(context, frameX + 48, frameY + 11, (ClientPlayerEntity) playerEntity);
+            drawLevelMeter(context, frameX + 34, frameY - 7, playerEntity);
+
+            sprites.draw(profiler);
+        });
+        profiler.visit("textBatch");
 
         // Render hotbar items
         drawHotbarItems(context, (frameX + 75), y - 19, tickDelta, playerEntity);
 
         // Render selected slot arrow
-        getInGameHud().client.getProfiler().push("slotArrow");
+        profiler.push("slotArrow");
         context.getMatrices().push();
         context.getMatrices().translate(0, 0, 999);
         drawTexture(context, (frameX + 73) + playerEntity.getInventory().selectedSlot * 20, frameY + 18, 20, 240, 22, 22);
         context.getMatrices().pop();
-        getInGameHud().client.getProfiler().pop();
+        sprites.draw(profiler);
+        profiler.pop();
 
         RenderSystem.disableBlend();
-        getInGameHud().client.getProfiler().pop();
+        profiler.pop();
     }
 
     private void drawFrame(DrawContext context, int x, int y, boolean hasVehicle) {
@@ -156,23 +176,21 @@ public class ImmersiveDiabloHotbar extends ImmersiveWidget {
         IngameHudConfig ighConfig = BlockgameEnhanced.getConfig().getIngameHudConfig();
         if(!ighConfig.showAdvancedStats) {
             TextRenderer textRenderer = getInGameHud().getTextRenderer();
-            String healthVal = String.valueOf(health);
+            int healthVal = health;
 
             if(getInGameHud().overlayMessage != null && getInGameHud().overlayRemaining > 0) {
                 float calc = maxHealth * healthPercent;
-                healthVal = String.valueOf((int) calc);
+                healthVal = (int) calc;
             }
 
-            RenderSystem.enableBlend();
+            CachedText text = healthText.setNumber(healthVal, textRenderer);
             int centerX = x + 16;
             int centerY = y + 16;
-            int txtWidth = textRenderer.getWidth(healthVal);
+            int txtWidth = text.getWidth();
             int txtHeight = textRenderer.fontHeight;
 
-            context.drawText(textRenderer, healthVal, (int) (centerX - (txtWidth / 2.f) + 2), (int) (centerY - (txtHeight / 2.f) + 1), 0x55000000, false);
-            context.drawText(textRenderer, healthVal, (int) (centerX - (txtWidth / 2.f) + 1), (int) (centerY - (txtHeight / 2.f)), 0xFFFFFF, false);
-            RenderSystem.disableBlend();
-            resetShaders();
+            context.drawText(textRenderer, text.getText(), (int) (centerX - (txtWidth / 2.f) + 2), (int) (centerY - (txtHeight / 2.f) + 1), 0x55000000, false);
+            context.drawText(textRenderer, text.getText(), (int) (centerX - (txtWidth / 2.f) + 1), (int) (centerY - (txtHeight / 2.f)), 0xFFFFFF, false);
         }
 
         getInGameHud().client.getProfiler().pop();
@@ -197,19 +215,16 @@ public class ImmersiveDiabloHotbar extends ImmersiveWidget {
         IngameHudConfig ighConfig = BlockgameEnhanced.getConfig().getIngameHudConfig();
         if(!ighConfig.showAdvancedStats) {
             TextRenderer textRenderer = getInGameHud().getTextRenderer();
-            String healthVal = String.valueOf((int) vehicle.getHealth());
+            CachedText text = vehicleHealthText.setNumber((int) vehicle.getHealth(), textRenderer);
 
-            RenderSystem.enableBlend();
             int centerX = x + 16;
             int centerY = y + 16;
-            int txtWidth = textRenderer.getWidth(healthVal);
+            int txtWidth = text.getWidth();
             int txtHeight = textRenderer.fontHeight;
 
             // this will be good eventually
-            context.drawText(textRenderer, healthVal, (int) (centerX - (txtWidth / 2.f)), (int) (centerY - (txtHeight / 2.f) + 1), 0x55000000, false);
-            context.drawText(textRenderer, healthVal, (int) (centerX - (txtWidth / 2.f) - 1), (int) (centerY - (txtHeight / 2.f)), 0xFFFFFF, false);
-            RenderSystem.disableBlend();
-            resetShaders();
+            context.drawText(textRenderer, text.getText(), (int) (centerX - (txtWidth / 2.f)), (int) (centerY - (txtHeight / 2.f) + 1), 0x55000000, false);
+            context.drawText(textRenderer, text.getText(), (int) (centerX - (txtWidth / 2.f) - 1), (int) (centerY - (txtHeight / 2.f)), 0xFFFFFF, false);
         }
 
         getInGameHud().client.getProfiler().pop();
@@ -250,18 +265,15 @@ public class ImmersiveDiabloHotbar extends ImmersiveWidget {
         IngameHudConfig ighConfig = BlockgameEnhanced.getConfig().getIngameHudConfig();
         if(!ighConfig.showAdvancedStats && hungerPercent > 0.0f) {
             TextRenderer textRenderer = getInGameHud().getTextRenderer();
-            String hungerVal = String.valueOf(player.getHungerManager().getFoodLevel());
+            CachedText text = hungerText.setNumber(player.getHungerManager().getFoodLevel(), textRenderer);
 
-            RenderSystem.enableBlend();
             float centerX = x + 7.5f;
             int centerY = y + 16;
-            int txtWidth = textRenderer.getWidth(hungerVal);
+            int txtWidth = text.getWidth();
             int txtHeight = textRenderer.fontHeight;
 
-            context.drawText(textRenderer, hungerVal, (int) (centerX - (txtWidth / 2.f) + 1), (int) (centerY - (txtHeight / 2.f) + 1), 0x55000000, false);
-            context.drawText(textRenderer, hungerVal, (int) (centerX - (txtWidth / 2.f)), (int) (centerY - (txtHeight / 2.f)), 0xFFFFFF, false);
-            RenderSystem.disableBlend();
-            resetShaders();
+            context.drawText(textRenderer, text.getText(), (int) (centerX - (txtWidth / 2.f) + 1), (int) (centerY - (txtHeight / 2.f) + 1), 0x55000000, false);
+            context.drawText(textRenderer, text.getText(), (int) (centerX - (txtWidth / 2.f)), (int) (centerY - (txtHeight / 2.f)), 0xFFFFFF, false);
         }
 
         getInGameHud().client.getProfiler().pop();
@@ -289,18 +301,15 @@ public class ImmersiveDiabloHotbar extends ImmersiveWidget {
         IngameHudConfig ighConfig = BlockgameEnhanced.getConfig().getIngameHudConfig();
         if(!ighConfig.showAdvancedStats && hydratePercent > 0.0f) {
             TextRenderer textRenderer = getInGameHud().getTextRenderer();
-            String hydrateVal = String.valueOf((int) hydration);
+            CachedText text = hydrationText.setNumber((int) hydration, textRenderer);
 
-            RenderSystem.enableBlend();
             int centerX = x + 7;
             int centerY = y + 16;
-            int txtWidth = textRenderer.getWidth(hydrateVal);
+            int txtWidth = text.getWidth();
             int txtHeight = textRenderer.fontHeight;
 
-            context.drawText(textRenderer, hydrateVal, (int) (centerX - (txtWidth / 2.f) + 1), (int) (centerY - (txtHeight / 2.f) + 1), 0x55000000, false);
-            context.drawText(textRenderer, hydrateVal, (int) (centerX - (txtWidth / 2.f)), (int) (centerY - (txtHeight / 2.f)), 0xFFFFFF, false);
-            RenderSystem.disableBlend();
-            resetShaders();
+            context.drawText(textRenderer, text.getText(), (int) (centerX - (txtWidth / 2.f) + 1), (int) (centerY - (txtHeight / 2.f) + 1), 0x55000000, false);
+            context.drawText(textRenderer, text.getText(), (int) (centerX - (txtWidth / 2.f)), (int) (centerY - (txtHeight / 2.f)), 0xFFFFFF, false);
         }
 
         getInGameHud().client.getProfiler().pop();
@@ -321,10 +330,8 @@ public class ImmersiveDiabloHotbar extends ImmersiveWidget {
             int yOffset = (int)(airPercent * 27.f);
 
             // Draw bottle and air filler
-            RenderSystem.enableBlend();
             drawTexture(context, x, y, 48, 12, 18, 37);
             drawTexture(context, x + 2, y + 8 + yOffset, 66, 20 + yOffset, 14, 27 - yOffset);
-            RenderSystem.disableBlend();
 
             getInGameHud().client.getProfiler().pop();
         }
@@ -369,15 +376,12 @@ public class ImmersiveDiabloHotbar extends ImmersiveWidget {
 
         // Draw text
         TextRenderer textRenderer = getInGameHud().client.textRenderer;
-        String string = String.valueOf(playerEntity.experienceLevel);
-        int tx = x + 13 - (textRenderer.getWidth(string) / 2);
+        CachedText text = levelText.setNumber(playerEntity.experienceLevel, textRenderer);
+        int tx = x + 13 - (text.getWidth() / 2);
         int ty = y + 13 - (textRenderer.fontHeight / 2);
 
-        context.drawText(getInGameHud().getTextRenderer(), string, tx, ty, 0xD1B945, false);
+        context.drawText(getInGameHud().getTextRenderer(), text.getText(), tx, ty, 0xD1B945, false);
         getInGameHud().client.getProfiler().pop();
-
-        // I find it fucking absurd that I need to do this after rendering text. What the hell Mojang
-        resetShaders();
     }
 
     /**
@@ -432,7 +436,7 @@ public class ImmersiveDiabloHotbar extends ImmersiveWidget {
     }
 
     /**
-     * Helper function to call InGameHud.drawTexture with our custom texture dimensions.
+     * Helper function to queue a region of our widgets texture into the sprite batch.
      * @param context the context of the drawing of the pixels
      * @param x the X coordinate of the rectangle
      * @param y the Y coordinate of the rectangle
@@ -442,7 +446,7 @@ public class ImmersiveDiabloHotbar extends ImmersiveWidget {
      * @param height the height
      */
     private void drawTexture(DrawContext context, int x, int y, int u, int v, int width, int height) {
-        context.drawTexture(WIDGETS_TEXTURE, x, y, u, v, width, height, 297, 263);
+        sprites.add(context.getMatrices(), x, y, u, v, width, height);
     }
 
     /**
@@ -470,17 +474,6 @@ public class ImmersiveDiabloHotbar extends ImmersiveWidget {
             getInGameHud().renderHotbarItem(context, x - 29, y, tickDelta, playerEntity, offHandStack, slotSeed++);
         }
 
-        resetShaders(); // Again, what the hell Mojang
         getInGameHud().client.getProfiler().pop();
     }
-
-    /**
-     * Resets the shaders to prepare for drawing immersive widget sprites.
-     */
-    private void resetShaders() {
-        RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, 1.0f);
-        RenderSystem.setShader(GameRenderer::getPositionTexProgram);
-        RenderSystem.setShaderTexture(0, WIDGETS_TEXTURE);
-        RenderSystem.enableBlend();
-    }
 }
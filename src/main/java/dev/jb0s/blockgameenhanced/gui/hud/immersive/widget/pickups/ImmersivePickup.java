@@ -1,13 +1,13 @@
 package dev.jb0s.blockgameenhanced.gui.hud.immersive.widget.pickups;
 
 import com.mojang.blaze3d.systems.RenderSystem;
+import dev.jb0s.blockgameenhanced.gui.ItemIconCache;
 import dev.jb0s.blockgameenhanced.gui.hud.immersive.widget.ImmersiveWidget;
 import lombok.Getter;
 import lombok.Setter;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.hud.InGameHud;
-import net.minecraft.client.render.item.ItemRenderer;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.item.ItemStack;
 import net.minecraft.text.Text;
@@ -21,7 +21,6 @@ public class ImmersivePickup extends ImmersiveWidget {
     private final ItemStack itemStack;
 
     @Getter
-    @Setter
     private int amount;
 
     @Getter
@@ -32,29 +31,37 @@ public class ImmersivePickup extends ImmersiveWidget {
     private final int PADDING = 5;
     private final int SPACING = 5;
 
+    // Label and its width, only rebuilt in the layout pass after the amount changed
+    private Text text;
+    private int textWidth;
+
+    // Remembers where the item's icon is cached, so drawing it doesn't hash its NBT every frame
+    private final ItemIconCache.Icon icon;
+
     public ImmersivePickup(InGameHud inGameHud, Text itemName, ItemStack itemStack, int amount) {
         super(inGameHud);
         this.itemName = itemName;
         this.itemStack = itemStack;
+        this.icon = new ItemIconCache.Icon(itemStack);
         setAmount(amount);
         setInactivityTicks(0);
     }
 
     @Override
     public void render(DrawContext context, int x, int y, float tickDelta) {
+        updateLayout();
         TextRenderer textRenderer = getInGameHud().getTextRenderer();
-        ItemRenderer itemRenderer = getInGameHud().client.getItemRenderer();
 
         RenderSystem.enableBlend();
         context.fill(x, y, x + getWidth(), y + getHeight(), 135 << 24);
 
         int tx = x + PADDING;
         int ty = y + ((getHeight() / 2) - (textRenderer.fontHeight / 2));
-        context.drawText(textRenderer, getText(), tx, ty, 0xFFFFFF, false);
+        context.drawText(textRenderer, text, tx, ty, 0xFFFFFF, false);
 
-        int ix = x + PADDING + getInGameHud().getTextRenderer().getWidth(getText()) + SPACING;
+        int ix = x + PADDING + textWidth + SPACING;
         int iy = y + ((getHeight() / 2) - (ITEM_SIZE / 2));
-        context.drawItem(itemStack, ix, iy);
+        ItemIconCache.drawItem(context, icon, ix, iy);
 
         RenderSystem.disableBlend();
     }
@@ -66,7 +73,8 @@ public class ImmersivePickup extends ImmersiveWidget {
 
     @Override
     public int getWidth() {
-        return PADDING + getInGameHud().getTextRenderer().getWidth(getText()) + SPACING + ITEM_SIZE + PADDING;
+        updateLayout();
+        return PADDING + textWidth + SPACING + ITEM_SIZE + PADDING;
     }
 
     @Override
@@ -74,8 +82,19 @@ public class ImmersivePickup extends ImmersiveWidget {
         return 20;
     }
 
-    private Text getText() {
-        return Text.of("§7" + getAmount() + "x ").copy().append(getItemName());
+    @Override
+    protected void layout() {
+        text = Text.of("§7" + getAmount() + "x ").copy().append(getItemName());
+        textWidth = getInGameHud().getTextRenderer().getWidth(text);
+    }
+
+    /**
+     * Sets the amount of items picked up on this popup.
+     * @param amount Amount of items picked up
+     */
+    public void setAmount(int amount) {
+        this.amount = amount;
+        markDirty();
     }
 
     /**
@@ -1,93 +1,44 @@
 package dev.jb0s.blockgameenhanced.gui.hud.immersive.widget.pickups;
 
-import dev.jb0s.blockgameenhanced.gui.hud.immersive.widget.ImmersiveWidget;
-import net.minecraft.client.gui.DrawContext;
+import dev.jb0s.blockgameenhanced.gui.hud.immersive.widget.ImmersiveStackedWidget;
+import dev.jb0s.blockgameenhanced.helper.DebugHelper;
 import net.minecraft.client.gui.hud.InGameHud;
-import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
-import net.minecraft.text.Text;
-
-import java.util.LinkedHashMap;
-import java.util.Map;
-
-public class ImmersivePickupStream extends ImmersiveWidget {
-    private final LinkedHashMap<Text, ImmersivePickup> pickupHashMap;
+import net.minecraft.nbt.NbtCompound;
 
+public class ImmersivePickupStream extends ImmersiveStackedWidget<ImmersivePickupStream.PickupKey, ImmersivePickup> {
     public ImmersivePickupStream(InGameHud inGameHud) {
-        super(inGameHud);
-        pickupHashMap = new LinkedHashMap<>();
+        super(inGameHud, Alignment.RIGHT, 5, false);
     }
 
     @Override
-    public synchronized void render(DrawContext context, int x, int y, float tickDelta) {
-        if(!pickupHashMap.isEmpty()) {
-            ImmersivePickup[] list = getPickupsSafe();
-
-            for (int i = 0; i < list.length; i++) {
-                ImmersivePickup entry = list[i];
-                int sx = x - entry.getWidth();
-                int sy = y + ((entry.getHeight() + 5) * i);
-                entry.render(context, sx, sy, tickDelta);
-            }
-        }
+    protected boolean isExpired(ImmersivePickup pickup) {
+        return pickup.getInactivityTicks() > 120;
     }
 
-    @Override
-    public synchronized int getWidth() {
-        int winningWidth = 0;
-        for (Map.Entry<Text, ImmersivePickup> entry : pickupHashMap.entrySet()) {
-            if(entry.getValue().getWidth() > winningWidth) {
-                winningWidth = entry.getValue().getWidth();
-            }
-        }
+    public void addPickup(ItemStack itemStack, int amount) {
+        DebugHelper.assertOnClientThread("Pickup stream");
 
-        return winningWidth;
-    }
+        PickupKey key = PickupKey.of(itemStack);
+        ImmersivePickup existing = getChild(key);
 
-    @Override
-    public synchronized int getHeight() {
-        return 25 * pickupHashMap.size();
-    }
-
-    @Override
-    public synchronized void tick() {
-        if(pickupHashMap.isEmpty()) {
+        if(existing != null) {
+            existing.addAmount(amount);
+            existing.setInactivityTicks(0);
             return;
         }
 
-        // Clear inactive shit
-        pickupHashMap.entrySet().removeIf(x -> x.getValue().getInactivityTicks() > 120);
-
-        // Tick pickups after
-        ImmersivePickup[] list = getPickupsSafe();
-        for (ImmersivePickup immersivePickup : list) {
-            immersivePickup.tick();
-        }
-    }
-
-    public synchronized void addPickup(ItemStack itemStack, int amount) {
-        if(pickupHashMap.containsKey(itemStack.getName())) {
-
-            // BUG: If we don't do this check the count will be doubled.
-            // This is because the godforsaken server sends two packets when picking up a single item. (≖､≖╬)
-            if(pickupHashMap.get(itemStack.getName()).getInactivityTicks() == 0) {
-                return;
-            }
-
-            pickupHashMap.get(itemStack.getName()).addAmount(amount);
-            pickupHashMap.get(itemStack.getName()).setInactivityTicks(0);
-            return;
-        }
-
-        ImmersivePickup pickup = new ImmersivePickup(getInGameHud(), itemStack.getName(), itemStack, amount);
-        pickupHashMap.put(itemStack.getName(), pickup);
+        addChild(key, new ImmersivePickup(getInGameHud(), itemStack.getName(), itemStack, amount));
     }
 
     /**
-     * Gets a clone of the pickup hashmap to avoid multithread madness.
-     * todo: Replace with a better solution that doesn't impact memory. (not like this game isn't garbage memory wise anyways)
+     * Identifies what was picked up. Stacks of the same item with the same NBT land on the same row.
+     * Hashing the NBT is a deep walk, but this only happens when something is picked up.
      */
-    private synchronized ImmersivePickup[] getPickupsSafe() {
-        return pickupHashMap.values().toArray(new ImmersivePickup[0]);
+    record PickupKey(Item item, NbtCompound nbt) {
+        static PickupKey of(ItemStack stack) {
+            return new PickupKey(stack.getItem(), stack.getNbt());
+        }
     }
 }
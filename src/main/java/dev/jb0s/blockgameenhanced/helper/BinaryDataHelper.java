@@ -0,0 +1,62 @@
+package dev.jb0s.blockgameenhanced.helper;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Shared bits for reading the data tables that the compileDataTables Gradle task produces from our JSON configs.
+ * Every table starts with a header (magic, format version, table kind) followed by a table of interned strings.
+ */
+public class BinaryDataHelper {
+    public static final int MAGIC = 0x42474454; // "BGDT"
+    public static final int FORMAT_VERSION = 1;
+
+    public static final int KIND_ZONES = 1;
+    public static final int KIND_MUSIC = 2;
+
+    /**
+     * Reads and validates the header of a data table.
+     * @param input The stream to read from.
+     * @param expectedKind The kind of table the caller expects, e.g. KIND_ZONES.
+     * @throws IOException If the header is invalid, or the table was compiled for a different format version.
+     */
+    public static void readHeader(DataInputStream input, int expectedKind) throws IOException {
+        int magic = input.readInt();
+        int version = input.readUnsignedShort();
+        int kind = input.readUnsignedByte();
+
+        if(magic != MAGIC) {
+            throw new IOException("Not a data table");
+        }
+        if(version != FORMAT_VERSION) {
+            throw new IOException("Unsupported data table version " + version);
+        }
+        if(kind != expectedKind) {
+            throw new IOException("Unexpected data table kind " + kind);
+        }
+    }
+
+    /**
+     * Reads the string table of a data table. Every string is interned, so identical ids share one instance.
+     * @param input The stream to read from.
+     * @return All strings in the table, referenced elsewhere in the file by index.
+     */
+    public static String[] readStringTable(DataInputStream input) throws IOException {
+        String[] strings = new String[input.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = input.readUTF().intern();
+        }
+
+        return strings;
+    }
+
+    /**
+     * Resolves a string reference. Index -1 is used to encode null.
+     * @param strings The string table of the data table.
+     * @param index Index into the string table.
+     * @return The referenced string, null if index is -1.
+     */
+    public static String getString(String[] strings, int index) {
+        return index >= 0 ? strings[index] : null;
+    }
+}
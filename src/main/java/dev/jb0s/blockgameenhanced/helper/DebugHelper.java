@@ -1,5 +1,6 @@
 package dev.jb0s.blockgameenhanced.helper;
 
+import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.text.Text;
@@ -15,4 +16,14 @@ public class DebugHelper {
         Text textMsg = Text.of(prefix + message);
         player.sendMessage(textMsg, false);
     }
+
+    /**
+     * Fails loudly when called from any thread other than the client thread. Only checks in debug mode.
+     * @param what Name of whatever is being accessed, for the exception message.
+     */
+    public static void assertOnClientThread(String what) {
+        if(BlockgameEnhanced.DEBUG && !MinecraftClient.getInstance().isOnThread()) {
+            throw new IllegalStateException(what + " accessed from " + Thread.currentThread().getName() + ", it belongs to the client thread");
+        }
+    }
 }
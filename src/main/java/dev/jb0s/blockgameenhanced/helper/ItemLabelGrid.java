@@ -0,0 +1,291 @@
+package dev.jb0s.blockgameenhanced.helper;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import lombok.Getter;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.ItemEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+/**
+ * Groups labelled item entities that lie close together, so that a pile of loot gets one combined label
+ * ("3x Bone, 5x Silk") instead of a nameplate per item.
+ * Items are hashed into cubic cells as big as the cluster radius, and every group of occupied cells that touch each
+ * other (including diagonally) forms one cluster. Two items closer than the radius are always in the same or in
+ * neighbouring cells, so they always share a label, no matter where the cell boundaries are.
+ * Clusters are only rebuilt when a cell is created or emptied, and relabelled at most once per tick, when the first
+ * item of the next tick checks in. Labels trail the items by a tick.
+ */
+public class ItemLabelGrid {
+    private final Long2ObjectOpenHashMap<Cell> cells = new Long2ObjectOpenHashMap<>();
+    private final ArrayList<Cluster> clusters = new ArrayList<>();
+    private boolean isClusteringDirty;
+
+    private World world;
+    private int cellSize;
+    private int labelMaxLength;
+    private long currentTick = Long.MIN_VALUE;
+
+    // Scratch space for finding the cells that touch each other
+    private final ArrayDeque<Cell> openCells = new ArrayDeque<>();
+
+    /**
+     * Puts an item entity in the cell it currently belongs to. Called by every labelled item entity every tick.
+     * @param entity The item entity.
+     * @param current The cell the entity was in after its last tick, or null.
+     * @param radius Size of the grid cells in blocks.
+     * @param maxLength Maximum length of a cluster label in characters.
+     * @return The cell the entity is in now.
+     */
+    public Cell track(ItemEntity entity, Cell current, int radius, int maxLength) {
+        World entityWorld = entity.getWorld();
+        if(entityWorld != world || radius != cellSize) {
+            clear();
+            world = entityWorld;
+            cellSize = radius;
+        }
+
+        long time = entityWorld.getTime();
+        if(time != currentTick) {
+            currentTick = time;
+            update(maxLength);
+        }
+
+        long key = BlockPos.asLong(MathHelper.floor(entity.getX() / cellSize), MathHelper.floor(entity.getY() / cellSize), MathHelper.floor(entity.getZ() / cellSize));
+        if(current != null && current.key == key && !current.discarded) {
+            return current;
+        }
+
+        untrack(entity, current);
+        Cell cell = cells.get(key);
+        if(cell == null) {
+            cell = new Cell(key);
+            cells.put(key, cell);
+
+            // A new cell can join clusters together
+            isClusteringDirty = true;
+        }
+
+        cell.members.add(entity);
+        cell.markDirty();
+        return cell;
+    }
+
+    /**
+     * Takes an item entity out of its cell, e.g. because it's no longer labelled.
+     * @param entity The item entity.
+     * @param cell The cell the entity is in, or null.
+     */
+    public void untrack(ItemEntity entity, Cell cell) {
+        if(cell == null || cell.discarded) {
+            return;
+        }
+
+        // Empty cells are dropped on the next update
+        if(cell.members.remove(entity)) {
+            cell.markDirty();
+        }
+    }
+
+    /**
+     * Forgets all cells and clusters.
+     */
+    public void clear() {
+        for (Cell cell : cells.values()) {
+            cell.discarded = true;
+        }
+
+        cells.clear();
+        clusters.clear();
+        isClusteringDirty = false;
+        world = null;
+    }
+
+    private void update(int maxLength) {
+        boolean relabelAll = maxLength != labelMaxLength;
+        labelMaxLength = maxLength;
+
+        ObjectIterator<Cell> iterator = cells.values().iterator();
+        while (iterator.hasNext()) {
+            Cell cell = iterator.next();
+
+            // Picked up or despawned items never tick again, so they can't untrack themselves
+            if(cell.members.removeIf(Entity::isRemoved)) {
+                cell.markDirty();
+            }
+
+            // An emptied cell can split its cluster in two
+            if(cell.members.isEmpty()) {
+                cell.discarded = true;
+                iterator.remove();
+                isClusteringDirty = true;
+            }
+        }
+
+        if(isClusteringDirty) {
+            rebuildClusters();
+            isClusteringDirty = false;
+        }
+
+        for (Cluster cluster : clusters) {
+            if(cluster.dirty || relabelAll) {
+                cluster.relabel(maxLength);
+                cluster.dirty = false;
+            }
+        }
+    }
+
+    /**
+     * Regroups all cells into clusters of cells that touch each other.
+     */
+    private void rebuildClusters() {
+        clusters.clear();
+        for (Cell cell : cells.values()) {
+            cell.cluster = null;
+        }
+
+        for (Cell start : cells.values()) {
+            if(start.cluster != null) {
+                continue;
+            }
+
+            Cluster cluster = new Cluster();
+            clusters.add(cluster);
+            start.cluster = cluster;
+            openCells.add(start);
+
+            // Flood fill through all 26 neighbours of every cell
+            Cell cell;
+            while ((cell = openCells.poll()) != null) {
+                cluster.cells.add(cell);
+
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+                        for (int dz = -1; dz <= 1; dz++) {
+                            Cell neighbour = cells.get(BlockPos.add(cell.key, dx, dy, dz));
+                            if(neighbour != null && neighbour.cluster == null) {
+                                neighbour.cluster = cluster;
+                                openCells.add(neighbour);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public static class Cell {
+        private final long key;
+        private final ArrayList<ItemEntity> members = new ArrayList<>();
+        private boolean discarded;
+
+        /**
+         * The cluster this cell is part of, null until the grid has been updated since the cell was created.
+         */
+        @Getter
+        private Cluster cluster;
+
+        private Cell(long key) {
+            this.key = key;
+        }
+
+        /**
+         * Marks the label of the cluster this cell is in as outdated, e.g. because the stack of one of its members changed.
+         */
+        public void markDirty() {
+            if(cluster != null) {
+                cluster.dirty = true;
+            }
+        }
+    }
+
+    public static class Cluster {
+        private final ArrayList<Cell> cells = new ArrayList<>();
+        private boolean dirty = true;
+
+        // The entity that displays the label, the one with the lowest id so that it doesn't change while the pile does
+        private ItemEntity leader;
+
+        /**
+         * The combined label of this cluster, null until the cluster has been labelled for the first time.
+         */
+        @Getter
+        private Text label;
+
+        // Scratch space for summing up identical stacks while relabelling
+        private final ArrayList<ItemStack> stacks = new ArrayList<>();
+        private final IntArrayList counts = new IntArrayList();
+
+        /**
+         * Is this entity the one that displays the label of the cluster?
+         * @param entity The item entity.
+         * @return Whether this entity should show the cluster label, all other members hide theirs.
+         */
+        public boolean isLeader(ItemEntity entity) {
+            return leader == entity;
+        }
+
+        private void relabel(int maxLength) {
+            leader = null;
+
+            // Most clusters only hold a handful of different items, so a linear search is fine here
+            for (Cell cell : cells) {
+                for (ItemEntity member : cell.members) {
+                    if(leader == null || member.getId() < leader.getId()) {
+                        leader = member;
+                    }
+
+                    ItemStack stack = member.getStack();
+                    int index = indexOf(stack);
+                    if(index < 0) {
+                        stacks.add(stack);
+                        counts.add(stack.getCount());
+                    }
+                    else {
+                        counts.set(index, counts.getInt(index) + stack.getCount());
+                    }
+                }
+            }
+
+            MutableText text = Text.literal(ItemLabelHelper.MOD_ASSIGNED_LABEL_SIGNATURE);
+            int length = 0;
+            for (int i = 0; i < stacks.size(); i++) {
+                Text name = stacks.get(i).getName();
+                String amount = counts.getInt(i) + "x ";
+                int entryLength = (i > 0 ? 2 : 0) + amount.length() + name.getString().length();
+
+                // Always show at least the first entry, cut off the rest once the label gets too long
+                if(i > 0 && length + entryLength > maxLength) {
+                    text.append(" +" + (stacks.size() - i) + " more");
+                    break;
+                }
+
+                text.append(i > 0 ? ", " + amount : amount).append(name);
+                length += entryLength;
+            }
+
+            label = text;
+            stacks.clear();
+            counts.clear();
+        }
+
+        private int indexOf(ItemStack stack) {
+            for (int i = 0; i < stacks.size(); i++) {
+                if(ItemStack.canCombine(stacks.get(i), stack)) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+    }
+}
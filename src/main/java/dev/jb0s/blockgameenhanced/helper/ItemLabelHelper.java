@@ -0,0 +1,72 @@
+package dev.jb0s.blockgameenhanced.helper;
+
+import dev.jb0s.blockgameenhanced.event.world.WorldUpdatedEvent;
+import lombok.Getter;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.minecraft.item.ItemStack;
+import net.minecraft.text.Text;
+
+public class ItemLabelHelper {
+    /**
+     * We use 877 in color codes to determine whether an item label is given by the Blockgame mod or not.
+     * Thor would NEVER use this signature, so it's pretty foolproof. Thor if you're reading this, don't be a goblin. That's my task.
+     */
+    public static final String MOD_ASSIGNED_LABEL_SIGNATURE = "§8§7§7";
+
+    /**
+     * Clusters of nearby labelled items, used when item labels are aggregated.
+     */
+    @Getter
+    private static final ItemLabelGrid grid = new ItemLabelGrid();
+
+    /**
+     * How many item labels were shown during the last full world tick.
+     */
+    @Getter
+    private static int liveLabels;
+
+    private static int countingLabels;
+    private static long countingTick = Long.MIN_VALUE;
+
+    /**
+     * Empties the grid whenever the world goes away, so it doesn't hold on to the old world and its item entities until
+     * the next labelled item happens to tick.
+     */
+    public static void init() {
+        WorldUpdatedEvent.EVENT.register(world -> grid.clear());
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> client.execute(grid::clear));
+    }
+
+    /**
+     * Builds the label shown above an item on the floor, e.g. "3x Iron Ingot".
+     * @param stack The stack the item entity holds.
+     * @return The label, prefixed with MOD_ASSIGNED_LABEL_SIGNATURE.
+     */
+    public static Text createLabel(ItemStack stack) {
+        return Text.of(MOD_ASSIGNED_LABEL_SIGNATURE + stack.getCount() + "x ").copyContentOnly().append(stack.getName());
+    }
+
+    /**
+     * Counts a label as live for this tick. Called by every item entity that currently shows our label.
+     * @param worldTime The current world time, used to tell ticks apart.
+     */
+    public static void countLiveLabel(long worldTime) {
+        if(worldTime != countingTick) {
+            // First label of a new tick, so the previous tick's count is complete
+            liveLabels = worldTime == countingTick + 1 ? countingLabels : 0;
+            countingLabels = 0;
+            countingTick = worldTime;
+        }
+
+        countingLabels++;
+    }
+
+    /**
+     * Gets the number of live labels for display. Reads as 0 once no item has counted itself for a while.
+     * @param worldTime The current world time.
+     * @return How many item labels were shown during the last full world tick.
+     */
+    public static int getLiveLabels(long worldTime) {
+        return worldTime - countingTick > 1 ? 0 : liveLabels;
+    }
+}
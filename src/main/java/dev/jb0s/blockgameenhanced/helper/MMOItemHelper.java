@@ -1,71 +1,55 @@
 package dev.jb0s.blockgameenhanced.helper;
 
-import com.google.gson.Gson;
-import dev.jb0s.blockgameenhanced.gamefeature.mmoitems.MMOItemsAbility;
+import dev.jb0s.blockgameenhanced.gamefeature.mmoitems.MMOItemsDescriptor;
+import dev.jb0s.blockgameenhanced.gamefeature.mmoitems.MMOItemsDescriptorHolder;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NbtCompound;
 
+/**
+ * Read-only access to the MMOItems data of item stacks. None of these ever create NBT on a stack, and every key is
+ * resolved only once per NBT compound (see {@link MMOItemsDescriptor}), so they are safe to call from render code.
+ */
 public class MMOItemHelper {
-    private static final String NBT_DURABILITY = "MMOITEMS_DURABILITY";
-    private static final String NBT_MAX_DURABILITY = "MMOITEMS_MAX_DURABILITY";
-    private static final String NBT_ABILITY = "MMOITEMS_ABILITY";
-    public static final String NBT_ITEM_TYPE = "MMOITEMS_ITEM_TYPE";
-
-    private static final Gson GSON = new Gson();
+    public static final String NBT_ITEM_TYPE = MMOItemsDescriptor.NBT_ITEM_TYPE;
+
+    /**
+     * Gets the cached MMOItems data of an item stack.
+     * @param itemStack The item stack to get the data of.
+     * @return The MMOItems descriptor of this stack, MMOItemsDescriptor.NONE if it has no NBT.
+     */
+    public static MMOItemsDescriptor getDescriptor(ItemStack itemStack) {
+        return ((MMOItemsDescriptorHolder) (Object) itemStack).getMMOItemsDescriptor();
+    }
 
     public static boolean hasMMODurability(ItemStack itemStack) {
-        NbtCompound nbt = itemStack.getOrCreateNbt();
-        return nbt != null && nbt.getInt(NBT_MAX_DURABILITY) > 0;
+        return getDescriptor(itemStack).hasDurability();
     }
 
     public static boolean hasMMOAbility(ItemStack itemStack) {
-        String nbt = itemStack.getOrCreateNbt().getString(NBT_ABILITY);
-        return nbt != null && !nbt.isEmpty();
+        return getDescriptor(itemStack).hasAbility();
     }
 
     public static int getMMOMaxDurability(ItemStack itemStack) {
-        if(!hasMMODurability(itemStack)) {
-            return 0;
-        }
-
-        NbtCompound nbt = itemStack.getOrCreateNbt();
-        return nbt.getInt(NBT_MAX_DURABILITY);
+        return getDescriptor(itemStack).getMaxDurability();
     }
 
     public static int getMMODurability(ItemStack itemStack) {
-        if(!hasMMODurability(itemStack)) {
-            return 0;
-        }
-
-        NbtCompound nbt = itemStack.getOrCreateNbt();
-        int mmoDurability = nbt.getInt(NBT_DURABILITY);
-
-        // Edge case for max durability items
-        if(mmoDurability == 0 && !nbt.contains(NBT_DURABILITY))
-            return getMMOMaxDurability(itemStack);
-
-        return mmoDurability;
+        MMOItemsDescriptor descriptor = getDescriptor(itemStack);
+        return descriptor.hasDurability() ? descriptor.getDurability() : 0;
     }
 
     public static int getMMODamage(ItemStack itemStack) {
-        if(!hasMMODurability(itemStack)) {
-            return 0;
-        }
-
-        int mmoMaxDurability = getMMOMaxDurability(itemStack);
-        int mmoDurability = getMMODurability(itemStack);
-        return mmoMaxDurability - mmoDurability;
+        return getDescriptor(itemStack).getDamage();
     }
 
     public static String getMMOAbility(ItemStack itemStack) {
-        String nbt = itemStack.getOrCreateNbt().getString("MMOITEMS_ABILITY");
-        if(nbt != null && !nbt.isEmpty()) {
-            MMOItemsAbility[] itemAbilities = GSON.fromJson(nbt, MMOItemsAbility[].class);
-            if(itemAbilities != null && itemAbilities.length > 0) {
-                return itemAbilities[0].Id;
-            }
-        }
+        return getDescriptor(itemStack).getAbility();
+    }
+
+    public static String getMMOTier(ItemStack itemStack) {
+        return getDescriptor(itemStack).getTier();
+    }
 
-        return null;
+    public static boolean isMMOInteractionDisabled(ItemStack itemStack) {
+        return getDescriptor(itemStack).isInteractionDisabled();
     }
 }
@@ -1,11 +1,19 @@
 package dev.jb0s.blockgameenhanced.mixin.entity;
 
+import dev.jb0s.blockgameenhanced.config.modules.AccessibilityConfig;
+import dev.jb0s.blockgameenhanced.helper.ItemLabelGrid;
+import dev.jb0s.blockgameenhanced.helper.ItemLabelHelper;
 import net.minecraft.block.ChestBlock;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.nbt.NbtCompound;
 import net.minecraft.text.Text;
 import net.minecraft.item.ItemStack;
 import net.minecraft.entity.ItemEntity;
+import net.minecraft.util.math.BlockPos;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -15,31 +23,127 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 public class MixinItemEntity {
     @Shadow private int itemAge;
 
-    /**
-     * We use 877 in color codes to determine whether an item label is given by the Blockgame mod or not.
-     * Thor would NEVER use this signature, so it's pretty foolproof. Thor if you're reading this, don't be a goblin. That's my task.
-     */
-    private static final String MOD_ASSIGNED_LABEL_SIGNATURE = "§8§7§7";
+    // The label we assigned, and what it was built from
+    @Unique private Text label;
+    @Unique private ItemStack labelStack;
+    @Unique private NbtCompound labelNbt;
+    @Unique private int labelCount;
+    @Unique private boolean labelVisible;
+    @Unique private ItemLabelGrid.Cell cell;
+
+    // Whether the block below is a chest, only re-checked when we end up on a different block
+    @Unique private long checkedBlockPos = Long.MAX_VALUE;
+    @Unique private boolean isOnChest;
 
     @Inject(method = "tick", at = @At("HEAD"))
     private void init(CallbackInfo ci) {
         ItemEntity thisItemEntity = (ItemEntity) (Object) this;
-        boolean enableItemLabels = BlockgameEnhanced.getConfig().getAccessibilityConfig().enableItemLabels;
-        boolean isOnChest = thisItemEntity.getWorld().getBlockState(thisItemEntity.getBlockPos().down()).getBlock() instanceof ChestBlock;
+        AccessibilityConfig config = BlockgameEnhanced.getConfig().getAccessibilityConfig();
+
+        // Labels are purely visual, so leave the integrated server's copy of the entity alone
+        if(!thisItemEntity.getWorld().isClient()) {
+            return;
+        }
+        if(!config.enableItemLabels) {
+            leaveCluster(thisItemEntity);
+            return;
+        }
+
+        BlockPos blockPos = thisItemEntity.getBlockPos();
+        if(blockPos.asLong() != checkedBlockPos) {
+            checkedBlockPos = blockPos.asLong();
+            isOnChest = thisItemEntity.getWorld().getBlockState(blockPos.down()).getBlock() instanceof ChestBlock;
+        }
+
+        // Someone else named this item, don't touch it. We know our own label by reference, so there's no need to
+        // compare strings. Labels carried over from before a config reload still have our signature though.
+        Text customName = thisItemEntity.getCustomName();
+        if(isOnChest || (customName != null && customName != label && !customName.getString().startsWith(ItemLabelHelper.MOD_ASSIGNED_LABEL_SIGNATURE))) {
+            leaveCluster(thisItemEntity);
+            return;
+        }
 
-        if(enableItemLabels && !isOnChest && (thisItemEntity.getCustomName() == null || thisItemEntity.getCustomName().getString().startsWith(MOD_ASSIGNED_LABEL_SIGNATURE))) {
-            giveItemEntityLabel(thisItemEntity);
+        // Only show labels for items close enough to be interesting
+        PlayerEntity player = MinecraftClient.getInstance().player;
+        if(player == null || thisItemEntity.squaredDistanceTo(player) > (double) config.itemLabelRange * config.itemLabelRange) {
+            hideLabel(thisItemEntity);
+            leaveCluster(thisItemEntity);
+            return;
         }
+
+        boolean stackChanged = hasStackChanged(thisItemEntity.getStack());
+        if(config.enableItemLabelClustering) {
+            cell = ItemLabelHelper.getGrid().track(thisItemEntity, cell, config.itemLabelClusterRadius, config.itemLabelMaxLength);
+            if(stackChanged) {
+                cell.markDirty();
+            }
+
+            // New cells join a cluster on the next update
+            ItemLabelGrid.Cluster cluster = cell.getCluster();
+            if(cluster == null) {
+                return;
+            }
+
+            // Only one item per cluster shows the combined label
+            if(!cluster.isLeader(thisItemEntity)) {
+                hideLabel(thisItemEntity);
+                return;
+            }
+            if(cluster.getLabel() == null) {
+                return;
+            }
+
+            showLabel(thisItemEntity, customName, cluster.getLabel());
+        }
+        else {
+            boolean wasClustered = cell != null;
+            leaveCluster(thisItemEntity);
+
+            // Only rebuild the label when the stack it was built from changed
+            showLabel(thisItemEntity, customName, stackChanged || wasClustered || customName != label ? ItemLabelHelper.createLabel(thisItemEntity.getStack()) : label);
+        }
+
+        ItemLabelHelper.countLiveLabel(thisItemEntity.getWorld().getTime());
     }
 
-    private static void giveItemEntityLabel(ItemEntity itemEntity) {
-        ItemStack stack = itemEntity.getStack();
-        boolean enableItemLabels = BlockgameEnhanced.getConfig().getAccessibilityConfig().enableItemLabels;
+    @Unique
+    private boolean hasStackChanged(ItemStack stack) {
+        if(stack == labelStack && stack.getCount() == labelCount && stack.getNbt() == labelNbt) {
+            return false;
+        }
+
+        labelStack = stack;
+        labelCount = stack.getCount();
+        labelNbt = stack.getNbt();
+        return true;
+    }
+
+    @Unique
+    private void showLabel(ItemEntity itemEntity, Text customName, Text newLabel) {
+        label = newLabel;
+        if(customName != newLabel) {
+            itemEntity.setCustomName(newLabel);
+        }
 
-        if(enableItemLabels) {
-            Text entityName = Text.of(MOD_ASSIGNED_LABEL_SIGNATURE + stack.getCount() + "x ").copyContentOnly().append(stack.getName());
+        if(!labelVisible) {
             itemEntity.setCustomNameVisible(true);
-            itemEntity.setCustomName(entityName);
+            labelVisible = true;
+        }
+    }
+
+    @Unique
+    private void hideLabel(ItemEntity itemEntity) {
+        if(labelVisible) {
+            itemEntity.setCustomNameVisible(false);
+            labelVisible = false;
+        }
+    }
+
+    @Unique
+    private void leaveCluster(ItemEntity itemEntity) {
+        if(cell != null) {
+            ItemLabelHelper.getGrid().untrack(itemEntity, cell);
+            cell = null;
         }
     }
 }
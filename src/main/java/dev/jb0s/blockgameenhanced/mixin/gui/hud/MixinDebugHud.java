@@ -0,0 +1,25 @@
+package dev.jb0s.blockgameenhanced.mixin.gui.hud;
+
+import dev.jb0s.blockgameenhanced.helper.ItemLabelHelper;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.hud.DebugHud;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.List;
+
+@Mixin(DebugHud.class)
+public class MixinDebugHud {
+    @Shadow @Final private MinecraftClient client;
+
+    @Inject(method = "getLeftText", at = @At("RETURN"))
+    public void getLeftText(CallbackInfoReturnable<List<String>> cir) {
+        if(client.world != null) {
+            cir.getReturnValue().add("Item labels: " + ItemLabelHelper.getLiveLabels(client.world.getTime()) + " live");
+        }
+    }
+}
@@ -1,51 +1,52 @@
 package dev.jb0s.blockgameenhanced.mixin.items;
 
+import com.llamalad7.mixinextras.injector.ModifyReturnValue;
+import com.llamalad7.mixinextras.sugar.Local;
 import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
+import dev.jb0s.blockgameenhanced.gamefeature.mmoitems.MMOItemsDescriptor;
+import dev.jb0s.blockgameenhanced.helper.MMOItemHelper;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NbtCompound;
 import net.minecraft.util.math.MathHelper;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
-import org.spongepowered.asm.mixin.injection.Inject;
-import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 @Mixin(Item.class)
 public class MixinItem {
-    private static final String NBT_DURABILITY = "MMOITEMS_DURABILITY";
-    private static final String NBT_MAX_DURABILITY = "MMOITEMS_MAX_DURABILITY";
-
-    @Inject(method = "getItemBarStep", at = @At("HEAD"), cancellable = true)
-    public void getItemBarStep(ItemStack stack, CallbackInfoReturnable<Integer> cir) {
+    // Same as MixinItemStack, modifying the return value doesn't allocate a CallbackInfoReturnable every frame
+    @ModifyReturnValue(method = "getItemBarStep", at = @At("RETURN"))
+    public int getItemBarStep(int original, @Local(argsOnly = true) ItemStack stack) {
         if(BlockgameEnhanced.isNotkerMmoPresent()) {
             // Compatibility with Notker's McMMO Item Durability viewer.
-            return;
+            return original;
         }
 
-        NbtCompound nbt = stack.getNbt();
+        MMOItemsDescriptor descriptor = MMOItemHelper.getDescriptor(stack);
 
-        if(nbt != null && nbt.getInt(NBT_MAX_DURABILITY) > 0) {
-            cir.setReturnValue(Math.round(13.0f - (float)stack.getDamage() * 13.0f / (float)stack.getMaxDamage()));
-            cir.cancel();
+        if(descriptor.hasDurability()) {
+            return Math.round(13.0f - (float)descriptor.getDamage() * 13.0f / (float)descriptor.getMaxDurability());
         }
+
+        return original;
     }
 
-    @Inject(method = "getItemBarColor", at = @At("HEAD"), cancellable = true)
-    public void getItemBarColor(ItemStack stack, CallbackInfoReturnable<Integer> cir) {
+    @ModifyReturnValue(method = "getItemBarColor", at = @At("RETURN"))
+    public int getItemBarColor(int original, @Local(argsOnly = true) ItemStack stack) {
         if(BlockgameEnhanced.isNotkerMmoPresent()) {
             // Compatibility with Notker's McMMO Item Durability viewer.
-            return;
+            return original;
         }
 
-        NbtCompound nbt = stack.getOrCreateNbt();
+        MMOItemsDescriptor descriptor = MMOItemHelper.getDescriptor(stack);
 
-        if(nbt != null && nbt.getInt(NBT_MAX_DURABILITY) > 0) {
-            float maxDamage = (float) nbt.getInt(NBT_MAX_DURABILITY);
-            float damage = (float)(nbt.getInt(NBT_MAX_DURABILITY) - nbt.getInt(NBT_DURABILITY));
+        if(descriptor.hasDurability()) {
+            float maxDamage = (float) descriptor.getMaxDurability();
+            float damage = (float) descriptor.getDamage();
 
             float f = Math.max(0.0f, (maxDamage - damage) / maxDamage);
-            cir.setReturnValue(MathHelper.hsvToRgb(f / 3.0f, 1.0f, 1.0f));
-            cir.cancel();
+            return MathHelper.hsvToRgb(f / 3.0f, 1.0f, 1.0f);
         }
+
+        return original;
     }
 }
@@ -1,72 +1,81 @@
 package dev.jb0s.blockgameenhanced.mixin.items;
 
+import com.llamalad7.mixinextras.injector.ModifyReturnValue;
 import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
-import dev.jb0s.blockgameenhanced.helper.MMOItemHelper;
+import dev.jb0s.blockgameenhanced.gamefeature.mmoitems.MMOItemsDescriptor;
+import dev.jb0s.blockgameenhanced.gamefeature.mmoitems.MMOItemsDescriptorHolder;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NbtCompound;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
-import org.spongepowered.asm.mixin.injection.Inject;
-import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 @Mixin(ItemStack.class)
-public abstract class MixinItemStack {
-    @Inject(method = "isDamageable", at = @At("HEAD"), cancellable = true)
-    public void isDamageable(CallbackInfoReturnable<Boolean> cir) {
-        if(BlockgameEnhanced.isNotkerMmoPresent()) {
-            // Compatibility with Notker's McMMO Item Durability viewer.
-            return;
-        }
+public abstract class MixinItemStack implements MMOItemsDescriptorHolder {
+    @Unique
+    private MMOItemsDescriptor mmoItemsDescriptor;
+
+    @Shadow
+    public abstract NbtCompound getNbt();
 
-        ItemStack thisItemStack = (ItemStack) (Object) this;
+    @Override
+    public MMOItemsDescriptor getMMOItemsDescriptor() {
+        // Read the field once. The descriptor itself knows which NBT it was parsed from, and notices when
+        // its MMOItems keys are changed in place.
+        MMOItemsDescriptor descriptor = mmoItemsDescriptor;
+        NbtCompound nbt = getNbt();
 
-        if(MMOItemHelper.hasMMODurability(thisItemStack)) {
-            cir.setReturnValue(true);
-            cir.cancel();
+        if(descriptor == null || !descriptor.isParsedFrom(nbt)) {
+            descriptor = MMOItemsDescriptor.of(nbt);
+            mmoItemsDescriptor = descriptor;
         }
+
+        return descriptor;
     }
 
-    @Inject(method = "getMaxDamage", at = @At("HEAD"), cancellable = true)
-    public void getMaxDamage(CallbackInfoReturnable<Integer> cir) {
+    // These run for every stack drawn in an inventory, so they modify the return value instead of cancelling at HEAD.
+    // A cancellable inject allocates a CallbackInfoReturnable on every call.
+    @ModifyReturnValue(method = "isDamageable", at = @At("RETURN"))
+    public boolean isDamageable(boolean original) {
         if(BlockgameEnhanced.isNotkerMmoPresent()) {
             // Compatibility with Notker's McMMO Item Durability viewer.
-            return;
+            return original;
         }
 
-        ItemStack thisItemStack = (ItemStack) (Object) this;
-
-        if(MMOItemHelper.hasMMODurability(thisItemStack)) {
-            cir.setReturnValue(MMOItemHelper.getMMOMaxDurability(thisItemStack));
-            cir.cancel();
-        }
+        return getMMOItemsDescriptor().hasDurability() || original;
     }
 
-    @Inject(at = @At("HEAD"), method = "getDamage", cancellable = true)
-    public void getDamage(CallbackInfoReturnable<Integer> cir) {
+    @ModifyReturnValue(method = "getMaxDamage", at = @At("RETURN"))
+    public int getMaxDamage(int original) {
         if(BlockgameEnhanced.isNotkerMmoPresent()) {
             // Compatibility with Notker's McMMO Item Durability viewer.
-            return;
+            return original;
         }
 
-        ItemStack thisItemStack = (ItemStack) (Object) this;
-
-        if(MMOItemHelper.hasMMODurability(thisItemStack)) {
-            cir.setReturnValue(MMOItemHelper.getMMODamage(thisItemStack));
-            cir.cancel();
-        }
+        MMOItemsDescriptor descriptor = getMMOItemsDescriptor();
+        return descriptor.hasDurability() ? descriptor.getMaxDurability() : original;
     }
 
-    @Inject(at = @At("HEAD"), method = "isDamaged", cancellable = true)
-    public void isDamaged(CallbackInfoReturnable<Boolean> cir) {
+    @ModifyReturnValue(method = "getDamage", at = @At("RETURN"))
+    public int getDamage(int original) {
         if(BlockgameEnhanced.isNotkerMmoPresent()) {
             // Compatibility with Notker's McMMO Item Durability viewer.
-            return;
+            return original;
         }
 
-        ItemStack thisItemStack = (ItemStack) (Object) this;
+        MMOItemsDescriptor descriptor = getMMOItemsDescriptor();
+        return descriptor.hasDurability() ? descriptor.getDamage() : original;
+    }
 
-        if(MMOItemHelper.hasMMODurability(thisItemStack)) {
-            cir.setReturnValue(MMOItemHelper.getMMODamage(thisItemStack) > 0);
-            cir.cancel();
+    @ModifyReturnValue(method = "isDamaged", at = @At("RETURN"))
+    public boolean isDamaged(boolean original) {
+        if(BlockgameEnhanced.isNotkerMmoPresent()) {
+            // Compatibility with Notker's McMMO Item Durability viewer.
+            return original;
         }
+
+        MMOItemsDescriptor descriptor = getMMOItemsDescriptor();
+        return descriptor.hasDurability() ? descriptor.getDamage() > 0 : original;
     }
 }
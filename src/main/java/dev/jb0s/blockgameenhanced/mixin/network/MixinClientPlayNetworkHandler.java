@@ -2,23 +2,24 @@ package dev.jb0s.blockgameenhanced.mixin.network;
 
 import dev.jb0s.blockgameenhanced.BlockgameEnhanced;
 import dev.jb0s.blockgameenhanced.event.chat.CommandSuggestionsEvent;
-import dev.jb0s.blockgameenhanced.event.chat.ReceiveChatMessageEvent;
+import dev.jb0s.blockgameenhanced.event.chat.ReceiveChatMessageRouter;
+import dev.jb0s.blockgameenhanced.event.chat.ReceiveOverlayMessageEvent;
 import dev.jb0s.blockgameenhanced.event.chat.SendChatMessageEvent;
 import dev.jb0s.blockgameenhanced.event.network.ServerPingEvent;
+import dev.jb0s.blockgameenhanced.event.network.WorldTimeUpdateEvent;
 import dev.jb0s.blockgameenhanced.event.screen.ScreenOpenedEvent;
 import dev.jb0s.blockgameenhanced.event.screen.ScreenReceivedInventoryEvent;
 import dev.jb0s.blockgameenhanced.gui.hud.immersive.ImmersiveIngameHud;
-import dev.jb0s.blockgameenhanced.helper.TimeHelper;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayNetworkHandler;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.entity.ItemEntity;
 import net.minecraft.item.ItemStack;
-import net.minecraft.network.NetworkThreadUtils;
 import net.minecraft.network.packet.c2s.play.CloseHandledScreenC2SPacket;
 import net.minecraft.network.packet.s2c.play.*;
 import net.minecraft.network.packet.s2c.query.PingResultS2CPacket;
 import net.minecraft.util.ActionResult;
+import net.minecraft.util.Util;
 import net.minecraft.world.World;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
@@ -28,8 +29,13 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 @Mixin(ClientPlayNetworkHandler.class)
 public class MixinClientPlayNetworkHandler {
+    /**
+     * Vanilla packet handlers start by rescheduling themselves onto the client thread. Injecting right after that call
+     * means our hooks only ever run once, on the client thread. At HEAD they would run on the network thread first.
+     */
+    private static final String FORCE_MAIN_THREAD = "Lnet/minecraft/network/NetworkThreadUtils;forceMainThread(Lnet/minecraft/network/packet/Packet;Lnet/minecraft/network/listener/PacketListener;Lnet/minecraft/util/thread/ThreadExecutor;)V";
 
-    @Inject(method = "onItemPickupAnimation", at = @At("HEAD"))
+    @Inject(method = "onItemPickupAnimation", at = @At(value = "INVOKE", target = FORCE_MAIN_THREAD, shift = At.Shift.AFTER))
     public void onItemPickupAnimation(ItemPickupAnimationS2CPacket packet, CallbackInfo ci) {
         MinecraftClient minecraft = MinecraftClient.getInstance();
         ClientPlayerEntity cpe = minecraft.player;
@@ -49,21 +55,17 @@ public class MixinClientPlayNetworkHandler {
         }
     }
 
-    @Inject(method = "onInventory", at = @At("HEAD"), cancellable = true)
+    @Inject(method = "onInventory", at = @At(value = "INVOKE", target = FORCE_MAIN_THREAD, shift = At.Shift.AFTER), cancellable = true)
     public void onInventory(InventoryS2CPacket packet, CallbackInfo ci) {
-        ClientPlayNetworkHandler thisHandler = (ClientPlayNetworkHandler) (Object) this;
-        NetworkThreadUtils.forceMainThread(packet, thisHandler, MinecraftClient.getInstance());
-
         ActionResult result = ScreenReceivedInventoryEvent.EVENT.invoker().screenReceivedInventory(packet);
         if(result != ActionResult.PASS) {
             ci.cancel();
         }
     }
 
-    @Inject(method = "onOpenScreen", at = @At("HEAD"), cancellable = true)
+    @Inject(method = "onOpenScreen", at = @At(value = "INVOKE", target = FORCE_MAIN_THREAD, shift = At.Shift.AFTER), cancellable = true)
     public void onOpenScreen(OpenScreenS2CPacket packet, CallbackInfo ci) {
         ClientPlayNetworkHandler thisHandler = (ClientPlayNetworkHandler) (Object) this;
-        NetworkThreadUtils.forceMainThread(packet, thisHandler, MinecraftClient.getInstance());
 
         ActionResult result = ScreenOpenedEvent.EVENT.invoker().screenOpened(packet);
         if(result != ActionResult.PASS) {
@@ -78,7 +80,22 @@ public class MixinClientPlayNetworkHandler {
 
     @Inject(method = "onGameMessage", at = @At("HEAD"), cancellable = true)
     public void onGameMessage(GameMessageS2CPacket packet, CallbackInfo ci) {
-        ActionResult result = ReceiveChatMessageEvent.EVENT.invoker().receiveChatMessage(MinecraftClient.getInstance(), packet.content().getString());
+        MinecraftClient client = MinecraftClient.getInstance();
+
+        // Unlike our other hooks, this one deliberately runs before the thread hop so that chat parsing stays off the
+        // client thread. Every message passes through here twice. It was already parsed on the network thread, and if
+        // we wanted it gone, it never made it this far. Parsed messages are applied on the client thread by the router.
+        if(client.isOnThread()) {
+            return;
+        }
+
+        // Action bar messages get a chance to be handled without being flattened into a string first
+        if(packet.overlay() && ReceiveOverlayMessageEvent.EVENT.invoker().receiveOverlayMessage(client, packet.content()) != ActionResult.PASS) {
+            ci.cancel();
+            return;
+        }
+
+        ActionResult result = ReceiveChatMessageRouter.dispatch(client, packet.content());
 
         if(result != ActionResult.PASS) {
             ci.cancel();
@@ -91,13 +108,26 @@ public class MixinClientPlayNetworkHandler {
         SendChatMessageEvent.EVENT.invoker().sendChatMessage(thisNw, message);
     }
 
-    @Inject(method = "onCommandSuggestions", at = @At("HEAD"))
+    @Inject(method = "onCommandSuggestions", at = @At(value = "INVOKE", target = FORCE_MAIN_THREAD, shift = At.Shift.AFTER))
     public void onCommandSuggestions(CommandSuggestionsS2CPacket packet, CallbackInfo ci) {
         CommandSuggestionsEvent.EVENT.invoker().commandSuggestions(MinecraftClient.getInstance(), packet.getCompletionId(), packet.getSuggestions());
     }
 
+    @Inject(method = "onWorldTimeUpdate", at = @At("HEAD"))
+    public void onWorldTimeUpdate(WorldTimeUpdateS2CPacket packet, CallbackInfo ci) {
+        // Like chat messages, this deliberately runs before the thread hop and passes through here twice. Only the network
+        // thread pass knows when the packet really arrived. The server clock is updated on the client thread by its listener.
+        if(MinecraftClient.getInstance().isOnThread()) {
+            return;
+        }
+
+        WorldTimeUpdateEvent.EVENT.invoker().worldTimeUpdate(packet.getTime(), Util.getMeasuringTimeMs());
+    }
+
     @Inject(method = "onPingResult", at = @At("HEAD"))
     public void onPing(PingResultS2CPacket packet, CallbackInfo ci) {
-        ServerPingEvent.EVENT.invoker().serverPing(packet.getStartTime() - TimeHelper.getSystemTimeUnix());
+        // Taken as the packet arrives, the latency feature adds it to its estimate on the client thread.
+        // Same clock the vanilla ping measurer stamps its requests with.
+        ServerPingEvent.EVENT.invoker().serverPing(Util.getMeasuringTimeMs() - packet.getStartTime());
     }
 }
@@ -0,0 +1,17 @@
+package dev.jb0s.blockgameenhanced.mixin.render;
+
+import dev.jb0s.blockgameenhanced.gui.ItemOverlayBatch;
+import net.minecraft.client.render.GameRenderer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(GameRenderer.class)
+public class MixinGameRenderer {
+    @Inject(method = "render", at = @At(value = "INVOKE", target = "Lnet/minecraft/client/gui/DrawContext;draw()V"))
+    public void flushItemOverlays(float tickDelta, long startTime, boolean tick, CallbackInfo ci) {
+        // Every item slot overlay queued this frame goes out in one batch, while the GUI projection is still set up
+        ItemOverlayBatch.flush();
+    }
+}
@@ -0,0 +1,99 @@
+package dev.jb0s.blockgameenhanced.gamefeature.mmostats;
+
+import com.sun.management.ThreadMXBean;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.text.Text;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Times MMOStatsLineParser against the split/substring parser it replaced, on the lines the server actually sends.
+ * Run with ./gradlew benchmarkStatsLineParser. Prints the time and the bytes allocated per parsed line.
+ */
+public class MMOStatsLineParserBenchmark {
+    private static final int WARMUP_ITERATIONS = 2_000_000;
+    private static final int MEASURED_ITERATIONS = 10_000_000;
+
+    private static final Text[] LINES = {
+            Text.literal("❤ 20/20 | 🍖 20/20 | 🧪 20.0/20"),
+            Text.literal("❤ 137/250 | 🍖 14/20 | 🧪 7.5/20"),
+            Text.literal("❤ 12/20").append(Text.literal(" | 🍖 20/20")).append(Text.literal(" | 🧪 19.2/20"))
+    };
+
+    // Written to so that the JIT can't throw the parsing away
+    private static long sink;
+
+    public static void main(String[] args) {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        MMOStatsLineParser parser = new MMOStatsLineParser();
+        Runnable current = () -> {
+            for (Text line : LINES) {
+                if(parser.parse(line)) {
+                    sink += parser.getHealth() + parser.getMaxHealth() + parser.getHunger() + (long) parser.getHydration();
+                }
+            }
+        };
+
+        // The old parser got the line flattened into a string first, so that is part of its cost
+        Runnable legacy = () -> {
+            for (Text line : LINES) {
+                LegacyStats stats = parseLegacy(line.getString());
+                if(stats != null) {
+                    sink += stats.health() + stats.maxHealth() + stats.hunger() + (long) stats.hydration();
+                }
+            }
+        };
+
+        run("MMOStatsLineParser", current);
+        run("split/substring", legacy);
+        System.out.println("(sink " + sink + ")");
+    }
+
+    private static void run(String name, Runnable parseAllLines) {
+        ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            parseAllLines.run();
+        }
+
+        long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            parseAllLines.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        long lines = (long) MEASURED_ITERATIONS * LINES.length;
+        System.out.printf("%-20s %8.1f ns/line %8.1f bytes/line%n", name, (double) elapsed / lines, (double) allocated / lines);
+    }
+
+    /**
+     * The stats line parsing from before MMOStatsLineParser, as it was in MMOStatsGameFeature.
+     */
+    static LegacyStats parseLegacy(String message) {
+        String[] split = message.split("\\|");
+        if(split.length != 3) {
+            return null;
+        }
+
+        String health = split[0].trim();
+        String hunger = split[1].trim();
+        String hydrate = split[2].trim();
+
+        if(health.startsWith("❤") && hunger.startsWith("🍖") && hydrate.startsWith("🧪")) {
+            String[] hpSet = health.substring(2).split("/");
+            String[] huSet = hunger.substring(3).split("/");
+            String[] hySet = hydrate.substring(3).split("/");
+
+            return new LegacyStats(Integer.parseInt(hpSet[0]), Integer.parseInt(hpSet[1].trim()), Integer.parseInt(huSet[0]), Float.parseFloat(hySet[0]));
+        }
+
+        return null;
+    }
+
+    record LegacyStats(int health, int maxHealth, int hunger, float hydration) { }
+}
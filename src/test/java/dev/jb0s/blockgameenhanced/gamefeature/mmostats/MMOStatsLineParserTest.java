@@ -0,0 +1,60 @@
+package dev.jb0s.blockgameenhanced.gamefeature.mmostats;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.text.Text;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MMOStatsLineParserTest {
+    @BeforeAll
+    public static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @Test
+    public void parsesTheSameAsTheOldParser() {
+        String[] lines = { "❤ 20/20 | 🍖 20/20 | 🧪 20.0/20", "❤ 137/250 | 🍖 14/20 | 🧪 7.5/20", "❤ 1/20 | 🍖 0/20 | 🧪 0/20" };
+        MMOStatsLineParser parser = new MMOStatsLineParser();
+
+        for (String line : lines) {
+            MMOStatsLineParserBenchmark.LegacyStats expected = MMOStatsLineParserBenchmark.parseLegacy(line);
+            assertTrue(parser.parse(Text.literal(line)), line);
+            assertEquals(expected.health(), parser.getHealth(), line);
+            assertEquals(expected.maxHealth(), parser.getMaxHealth(), line);
+            assertEquals(expected.hunger(), parser.getHunger(), line);
+            assertEquals(expected.hydration(), parser.getHydration(), line);
+        }
+    }
+
+    @Test
+    public void parsesLinesSplitAcrossSegments() {
+        MMOStatsLineParser parser = new MMOStatsLineParser();
+        Text line = Text.literal("❤ 1").append(Text.literal("2/20 | 🍖 20")).append(Text.literal("/20 | 🧪 19.2/20"));
+
+        assertTrue(parser.parse(line));
+        assertEquals(12, parser.getHealth());
+        assertEquals(19.2f, parser.getHydration());
+    }
+
+    @Test
+    public void rejectsMalformedLines() {
+        MMOStatsLineParser parser = new MMOStatsLineParser();
+
+        assertFalse(parser.parse(Text.literal("❤ 20/20 | 🍖 20/20")));
+        assertFalse(parser.parse(Text.literal("❤ 20.5/20 | 🍖 20/20 | 🧪 20/20")));
+        assertFalse(parser.parse(Text.literal("❤ 20/20 | 🍖 20/20 | 🧪 20./20")));
+        assertFalse(parser.parse(Text.literal("[EXP] Mining 10%")));
+    }
+
+    @Test
+    public void ignoresFractionDigitsPastTheNinth() {
+        MMOStatsLineParser parser = new MMOStatsLineParser();
+
+        assertTrue(parser.parse(Text.literal("❤ 20/20 | 🍖 20/20 | 🧪 7.50000000000000000000000000000001/20")));
+        assertEquals(7.5f, parser.getHydration());
+    }
+}
@@ -0,0 +1,145 @@
+package dev.jb0s.blockgameenhanced.helper;
+
+import com.sun.management.ThreadMXBean;
+import dev.jb0s.blockgameenhanced.gamefeature.mmoitems.MMOItemsDescriptor;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.NbtCompound;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that reading MMOItems data (through MMOItemHelper and the durability mixins on ItemStack and Item) never attaches
+ * NBT to a stack, and doesn't allocate once a stack's NBT has been parsed. Runs inside Fabric Loader, so the mixins apply.
+ */
+public class MMOItemHelperTest {
+    private static final int ITERATIONS = 100_000;
+
+    // Any allocation per read would add up to megabytes over ITERATIONS, this only leaves room for the measurement itself
+    private static final long ALLOCATION_SLACK_BYTES = 1024;
+
+    // Written to so that the JIT can't throw the reads away
+    private static long sink;
+
+    @BeforeAll
+    public static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @Test
+    public void readsDoNotCreateNbt() {
+        ItemStack stack = new ItemStack(Items.DIAMOND_SWORD);
+        readEverything(stack);
+
+        assertNull(stack.getNbt());
+        assertSame(MMOItemsDescriptor.NONE, MMOItemHelper.getDescriptor(stack));
+    }
+
+    @Test
+    public void readsDurabilityFromMMOItemsNbt() {
+        ItemStack stack = createMMOItemsStack();
+
+        assertTrue(stack.isDamageable());
+        assertTrue(stack.isDamaged());
+        assertEquals(100, stack.getMaxDamage());
+        assertEquals(60, stack.getDamage());
+        assertEquals(40, MMOItemHelper.getMMODurability(stack));
+        assertEquals("FROSTBOLT", MMOItemHelper.getMMOAbility(stack));
+        assertEquals("RARE", MMOItemHelper.getMMOTier(stack));
+    }
+
+    @Test
+    public void noticesNbtChangedInPlace() {
+        ItemStack stack = createMMOItemsStack();
+        assertEquals(60, stack.getDamage());
+
+        stack.getNbt().putInt(MMOItemsDescriptor.NBT_DURABILITY, 90);
+        assertEquals(10, stack.getDamage());
+
+        stack.getOrCreateNbt().remove(MMOItemsDescriptor.NBT_ABILITY);
+        assertNull(MMOItemHelper.getMMOAbility(stack));
+    }
+
+    @Test
+    public void keepsDescriptorWhenOtherNbtChanges() {
+        ItemStack stack = createMMOItemsStack();
+        MMOItemsDescriptor descriptor = MMOItemHelper.getDescriptor(stack);
+
+        // Only the MMOItems keys are compared, so e.g. a renamed item doesn't get parsed again
+        stack.getNbt().putString("CustomTag", "value");
+        assertSame(descriptor, MMOItemHelper.getDescriptor(stack));
+
+        // Putting the same value again stores a new element, which is enough to parse again
+        stack.getNbt().putString(MMOItemsDescriptor.NBT_TIER, "RARE");
+        assertNotSame(descriptor, MMOItemHelper.getDescriptor(stack));
+        assertEquals("RARE", MMOItemHelper.getMMOTier(stack));
+    }
+
+    @Test
+    public void toleratesMalformedAbilityJson() {
+        ItemStack stack = createMMOItemsStack();
+        stack.getNbt().putString(MMOItemsDescriptor.NBT_ABILITY, "[{\"Id\":");
+
+        assertFalse(MMOItemHelper.hasMMOAbility(stack));
+        assertEquals(60, stack.getDamage());
+    }
+
+    @Test
+    public void readsDoNotAllocateAfterTheFirstParse() {
+        ItemStack plainStack = new ItemStack(Items.DIAMOND_SWORD);
+        ItemStack mmoStack = createMMOItemsStack();
+
+        // Parses both descriptors, and gives the JIT a chance to settle
+        for (int i = 0; i < ITERATIONS; i++) {
+            readEverything(plainStack);
+            readEverything(mmoStack);
+        }
+
+        ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            readEverything(plainStack);
+            readEverything(mmoStack);
+        }
+        long allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        assertTrue(allocated <= ALLOCATION_SLACK_BYTES, "Reading MMOItems data allocated " + allocated + " bytes");
+        assertNull(plainStack.getNbt());
+    }
+
+    private static ItemStack createMMOItemsStack() {
+        NbtCompound nbt = new NbtCompound();
+        nbt.putInt(MMOItemsDescriptor.NBT_MAX_DURABILITY, 100);
+        nbt.putInt(MMOItemsDescriptor.NBT_DURABILITY, 40);
+        nbt.putString(MMOItemsDescriptor.NBT_ABILITY, "[{\"Id\":\"FROSTBOLT\"}]");
+        nbt.putString(MMOItemsDescriptor.NBT_TIER, "RARE");
+
+        ItemStack stack = new ItemStack(Items.DIAMOND_SWORD);
+        stack.setNbt(nbt);
+        return stack;
+    }
+
+    private static void readEverything(ItemStack stack) {
+        sink += stack.isDamageable() ? 1 : 0;
+        sink += stack.isDamaged() ? 1 : 0;
+        sink += stack.getMaxDamage();
+        sink += stack.getDamage();
+        sink += stack.getItemBarStep();
+        sink += stack.getItemBarColor();
+        sink += MMOItemHelper.hasMMODurability(stack) ? 1 : 0;
+        sink += MMOItemHelper.getMMODurability(stack);
+        sink += MMOItemHelper.getMMOMaxDurability(stack);
+        sink += MMOItemHelper.getMMODamage(stack);
+        sink += MMOItemHelper.hasMMOAbility(stack) ? 1 : 0;
+        sink += MMOItemHelper.getMMOAbility(stack) != null ? 1 : 0;
+        sink += MMOItemHelper.getMMOTier(stack) != null ? 1 : 0;
+        sink += MMOItemHelper.isMMOInteractionDisabled(stack) ? 1 : 0;
+    }
+}